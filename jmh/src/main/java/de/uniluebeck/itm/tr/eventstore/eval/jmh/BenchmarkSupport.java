@@ -0,0 +1,78 @@
+package de.uniluebeck.itm.tr.eventstore.eval.jmh;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import de.uniluebeck.itm.tr.eventstore.eval.Generator;
+import de.uniluebeck.itm.tr.eventstore.eval.Params;
+import de.uniluebeck.itm.util.propconf.PropConfModule;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Creates {@link Params} and {@link Generator} instances for the JMH benchmarks the same way {@code Evaluation} does,
+ * i.e., by injecting them from a (temporary) properties file.
+ */
+abstract class BenchmarkSupport {
+
+    static final String MESSAGE_GENERATOR = "de.uniluebeck.itm.tr.eventstore.eval.RandomMessageGenerator";
+
+    static final String STRING_GENERATOR = "de.uniluebeck.itm.tr.eventstore.eval.RandomStringGenerator";
+
+    static final String BIG_INTEGER_GENERATOR = "de.uniluebeck.itm.tr.eventstore.eval.RandomBigIntegerGenerator";
+
+    static final String NODE_URN_GENERATOR = "de.uniluebeck.itm.tr.eventstore.eval.RandomNodeUrnGenerator";
+
+    /**
+     * Creates a generator of class {@code generatorClass} that produces payloads of exactly {@code payloadLength} bytes.
+     *
+     * @param generatorClass fully-qualified class name of the generator
+     * @param payloadLength  the payload length in bytes
+     * @return the generator instance
+     */
+    @SuppressWarnings("unchecked")
+    static Generator<Object> createGenerator(String generatorClass, int payloadLength) {
+
+        Properties properties = new Properties();
+        properties.setProperty(Params.GENERATOR_CLASS, generatorClass);
+        properties.setProperty(Params.PAYLOAD_MIN_LENGTH, String.valueOf(payloadLength));
+        properties.setProperty(Params.PAYLOAD_MAX_LENGTH, String.valueOf(payloadLength + 1));
+
+        try {
+
+            File file = File.createTempFile("eventstore-jmh", ".properties");
+            file.deleteOnExit();
+            try (OutputStream out = new FileOutputStream(file)) {
+                properties.store(out, null);
+            }
+
+            Injector injector = Guice.createInjector(new PropConfModule(file, Params.class));
+            Params params = injector.getInstance(Params.class);
+            return (Generator<Object>) injector.getInstance(params.getGeneratorClass());
+
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Pre-generates {@code count} items so that the cost of {@link Generator#next()} is not part of the measurement.
+     *
+     * @param generator the generator to use
+     * @param count     the number of items, must be a power of two
+     * @return the generated items
+     */
+    static Object[] pregenerate(Generator<Object> generator, int count) {
+        if (Integer.bitCount(count) != 1) {
+            throw new IllegalArgumentException("count must be a power of two");
+        }
+        Object[] items = new Object[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = generator.next();
+        }
+        return items;
+    }
+}
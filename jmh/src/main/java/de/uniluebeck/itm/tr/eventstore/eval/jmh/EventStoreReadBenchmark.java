@@ -0,0 +1,72 @@
+package de.uniluebeck.itm.tr.eventstore.eval.jmh;
+
+import de.uniluebeck.itm.eventstore.CloseableIterator;
+import de.uniluebeck.itm.eventstore.EventContainer;
+import de.uniluebeck.itm.eventstore.EventStore;
+import de.uniluebeck.itm.tr.eventstore.eval.EventStoreRun;
+import de.uniluebeck.itm.tr.eventstore.eval.Generator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full iteration over {@link EventStore#getAllEvents()} of a store that has been filled with
+ * {@code storeSize} items during set up. Every element is deserialized and consumed so that the JIT can not eliminate
+ * the loop. Reader threads share one store, their number is set with JMH's {@code -t} option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventStoreReadBenchmark {
+
+    @Param({
+            BenchmarkSupport.MESSAGE_GENERATOR,
+            BenchmarkSupport.STRING_GENERATOR,
+            BenchmarkSupport.BIG_INTEGER_GENERATOR
+    })
+    public String generatorClass;
+
+    @Param({"40", "120", "1024"})
+    public int payloadLength;
+
+    @Param({"100000"})
+    public int storeSize;
+
+    private EventStore<Object> eventStore;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Generator<Object> generator = BenchmarkSupport.createGenerator(generatorClass, payloadLength);
+        eventStore = EventStoreRun.createEventStore(
+                generator.getGeneratedClass(),
+                generator.getSerializer(),
+                generator.getDeserializer()
+        );
+        for (int i = 0; i < storeSize; i++) {
+            eventStore.storeEvent(generator.next());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        eventStore.close();
+    }
+
+    @Benchmark
+    public long getAllEvents(Blackhole blackhole) throws IOException {
+        long read = 0;
+        try (CloseableIterator<EventContainer<Object>> iterator = eventStore.getAllEvents()) {
+            while (iterator.hasNext()) {
+                EventContainer<Object> container = iterator.next();
+                blackhole.consume(container.getEvent());
+                read++;
+            }
+        }
+        return read;
+    }
+}
@@ -0,0 +1,65 @@
+package de.uniluebeck.itm.tr.eventstore.eval.jmh;
+
+import de.uniluebeck.itm.eventstore.EventStore;
+import de.uniluebeck.itm.tr.eventstore.eval.EventStoreRun;
+import de.uniluebeck.itm.tr.eventstore.eval.Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EventStore#storeEvent(Object)}. Like in {@code EventStoreRun} every writer thread owns its own store,
+ * the number of writers is set with JMH's {@code -t} option, e.g.:
+ * <pre>
+ * java -jar target/benchmarks.jar EventStoreWriteBenchmark -t 4 -p payloadLength=120
+ * </pre>
+ * Items are generated before the measurement starts and replayed from a ring, so generation cost is excluded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class EventStoreWriteBenchmark {
+
+    private static final int RING_SIZE = 1 << 14;
+
+    @Param({
+            BenchmarkSupport.MESSAGE_GENERATOR,
+            BenchmarkSupport.STRING_GENERATOR,
+            BenchmarkSupport.BIG_INTEGER_GENERATOR
+    })
+    public String generatorClass;
+
+    @Param({"40", "120", "1024"})
+    public int payloadLength;
+
+    private EventStore<Object> eventStore;
+
+    private Object[] items;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Generator<Object> generator = BenchmarkSupport.createGenerator(generatorClass, payloadLength);
+        items = BenchmarkSupport.pregenerate(generator, RING_SIZE);
+        eventStore = EventStoreRun.createEventStore(
+                generator.getGeneratedClass(),
+                generator.getSerializer(),
+                generator.getDeserializer()
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        eventStore.close();
+    }
+
+    @Benchmark
+    public void storeEvent() throws IOException {
+        eventStore.storeEvent(items[next++ & (RING_SIZE - 1)]);
+    }
+}
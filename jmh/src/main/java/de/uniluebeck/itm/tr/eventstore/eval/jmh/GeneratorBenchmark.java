@@ -0,0 +1,105 @@
+package de.uniluebeck.itm.tr.eventstore.eval.jmh;
+
+import com.google.common.base.Function;
+import de.uniluebeck.itm.tr.eventstore.eval.BufferSerializer;
+import de.uniluebeck.itm.tr.eventstore.eval.Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of generating items, of the serializer and deserializer functions that every {@link Generator}
+ * hands to the event store and of the allocation-free {@link BufferSerializer} alternative. Run with {@code -prof gc}
+ * to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    private static final int RING_SIZE = 1 << 12;
+
+    @Param({
+            BenchmarkSupport.MESSAGE_GENERATOR,
+            BenchmarkSupport.STRING_GENERATOR,
+            BenchmarkSupport.BIG_INTEGER_GENERATOR,
+            BenchmarkSupport.NODE_URN_GENERATOR
+    })
+    public String generatorClass;
+
+    @Param({"40", "120", "1024"})
+    public int payloadLength;
+
+    private Generator<Object> generator;
+
+    private Function<Object, byte[]> serializer;
+
+    private Function<byte[], Object> deserializer;
+
+    private Object[] items;
+
+    private byte[][] serialized;
+
+    private BufferSerializer<Object> bufferSerializer;
+
+    private ByteBuffer target;
+
+    private ByteBuffer[] bufferSerialized;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = BenchmarkSupport.createGenerator(generatorClass, payloadLength);
+        serializer = generator.getSerializer();
+        deserializer = generator.getDeserializer();
+        items = BenchmarkSupport.pregenerate(generator, RING_SIZE);
+        serialized = new byte[RING_SIZE][];
+        for (int i = 0; i < RING_SIZE; i++) {
+            serialized[i] = serializer.apply(items[i]);
+        }
+
+        bufferSerializer = generator.getBufferSerializer();
+        target = ByteBuffer.allocate(4 * payloadLength + 1024);
+        bufferSerialized = new ByteBuffer[RING_SIZE];
+        for (int i = 0; i < RING_SIZE; i++) {
+            target.clear();
+            bufferSerializer.serialize(items[i], target);
+            target.flip();
+            bufferSerialized[i] = ByteBuffer.allocate(target.remaining()).put(target);
+        }
+    }
+
+    @Benchmark
+    public Object next() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.apply(items[next++ & (RING_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.apply(serialized[next++ & (RING_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public int serializeIntoBuffer() {
+        target.clear();
+        bufferSerializer.serialize(items[next++ & (RING_SIZE - 1)], target);
+        return target.position();
+    }
+
+    @Benchmark
+    public Object deserializeFromBuffer() {
+        ByteBuffer source = bufferSerialized[next++ & (RING_SIZE - 1)];
+        source.clear();
+        return bufferSerializer.deserialize(source);
+    }
+}
@@ -1,14 +1,22 @@
 package de.uniluebeck.itm.tr.eventstore.eval;
 
-import com.google.common.base.Stopwatch;
 import com.google.common.util.concurrent.AbstractService;
 import de.uniluebeck.itm.util.scheduler.SchedulerService;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Maps.newHashMap;
@@ -27,6 +35,12 @@ public abstract class AbstractRun<T> extends AbstractService implements Run<T> {
     protected final RunStatsImpl<T> stats;
     protected final int runNr;
 
+    /**
+     * The files and directories of the stores created by this run. Their size is measured after all writers and
+     * readers completed and before the stores are closed.
+     */
+    protected final List<Path> storeFiles = new CopyOnWriteArrayList<>();
+
     /**
      * Creates a new Run.
      *
@@ -62,21 +76,38 @@ public abstract class AbstractRun<T> extends AbstractService implements Run<T> {
         final Map<Integer, Runnable> writers = newHashMap();
         final Map<Integer, Runnable> readers = newHashMap();
         final Random random = new Random();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        EventCorpus<T> corpus = null;
+        if (params.getPregenerate() && params.getWriterThreadCnt() > 0) {
+            System.out.println("Pre-generating " + params.getPregeneratedItems() + " items");
+            corpus = EventCorpus.pregenerate(generator, params.getPregeneratedItems());
+        }
+
+        int storeCnt = params.getWriterThreadCnt() / getWritersPerStore();
 
-        System.out.println("Creating " + params.getWriterThreadCnt() + " stores and " + params.getWriterThreadCnt() + " writer threads");
+        System.out.println("Creating " + storeCnt + " stores and " + params.getWriterThreadCnt() + " writer threads");
+
+        // create the stores and the writers before starting individual writers
+        for (int i = 1; i <= storeCnt; i++) {
+            stores.put(i, createStore());
+        }
 
-        // create a store for each writer and the writer before starting individual writers
         for (int i = 1; i <= params.getWriterThreadCnt(); i++) {
 
-            Object store = createStore();
-            stores.put(i, store);
+            Object store = stores.get(storeCnt == 1 ? 1 : i);
 
-            CompletableFuture<Stopwatch> future = new CompletableFuture<>();
-            future.thenAccept((stopwatch) -> {
-                stats.addWritten(params.getWritesPerThread(), stopwatch);
+            CompletableFuture<WorkerStats> future = new CompletableFuture<>();
+            future.whenComplete((workerStats, e) -> {
+                if (e == null) {
+                    stats.addWritten(workerStats.getOperations(params.getWritesPerThread()), workerStats);
+                } else {
+                    failure.compareAndSet(null, e);
+                }
                 semaphore.release();
             });
-            Runnable writer = createWriter(store, future);
+            Iterator<T> items = corpus == null ? generator.split() : corpus.replay(i * (corpus.size() / params.getWriterThreadCnt()));
+            Runnable writer = completingExceptionally(createWriter(store, items, future), future);
             writers.put(i, writer);
         }
 
@@ -85,17 +116,24 @@ public abstract class AbstractRun<T> extends AbstractService implements Run<T> {
         // create readers
         for (int i = 0; i < params.getReaderThreadCnt(); i++) {
 
-            CompletableFuture<Stopwatch> future = new CompletableFuture<>();
-            future.thenAccept((stopwatch) -> {
-                stats.addRead(params.getReadsPerThread(), stopwatch);
+            CompletableFuture<WorkerStats> future = new CompletableFuture<>();
+            future.whenComplete((workerStats, e) -> {
+                if (e == null) {
+                    stats.addRead(workerStats.getOperations(params.getReadsPerThread()), workerStats);
+                } else {
+                    failure.compareAndSet(null, e);
+                }
                 semaphore.release();
             });
-            Object randomStore = stores.get(random.nextInt(stores.size()));
-            readers.put(i, createReader(randomStore, future));
+            Object randomStore = stores.get(1 + random.nextInt(stores.size()));
+            readers.put(i, completingExceptionally(createReader(randomStore, future), future));
         }
 
         System.out.println("Starting " + params.getWriterThreadCnt() + " writers and " + params.getReaderThreadCnt() + " readers");
 
+        final GarbageCollectionStats gcBefore = GarbageCollectionStats.snapshot();
+        final IoStats ioBefore = IoStats.snapshot();
+
         // start writers
         writers.forEach((nr, writer) -> {
             try {
@@ -127,8 +165,15 @@ public abstract class AbstractRun<T> extends AbstractService implements Run<T> {
 
             semaphore.acquire(threadCount);
 
+            stats.setGarbageCollections(GarbageCollectionStats.snapshot().since(gcBefore));
+            stats.setBytesOnDisk(sizeOf(storeFiles));
+            stores.values().forEach(this::recordStoreStats);
+
             System.out.println("All " + params.getWriterThreadCnt() + " writers and " + params.getReaderThreadCnt()
                     + " readers have completed this run nr " + runNr + "!");
+            if (stats.getItemsFound() > 0) {
+                System.out.println("The readers found " + stats.getItemsFound() + " items");
+            }
 
             stores.forEach((idx, s) -> {
                 if (s instanceof Closeable) {
@@ -141,7 +186,14 @@ public abstract class AbstractRun<T> extends AbstractService implements Run<T> {
                 }
             });
 
-            notifyStopped();
+            // closing flushes what stores buffered, so the I/O is sampled afterwards
+            stats.setIo(IoStats.snapshot().since(ioBefore));
+
+            if (failure.get() != null) {
+                notifyFailed(failure.get());
+            } else {
+                notifyStopped();
+            }
 
         } catch (Exception e) {
             notifyFailed(e);
@@ -161,9 +213,71 @@ public abstract class AbstractRun<T> extends AbstractService implements Run<T> {
         return stats;
     }
 
+    /**
+     * Completes {@code future} exceptionally if {@code worker} throws, so that a failing worker fails the run instead
+     * of leaving it waiting for the worker forever.
+     */
+    private static Runnable completingExceptionally(Runnable worker, CompletableFuture<WorkerStats> future) {
+        return () -> {
+            try {
+                worker.run();
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of writer threads that write to the same store.
+     *
+     * @return 1 if every writer has its own store, the number of writers otherwise
+     */
+    protected int getWritersPerStore() {
+        return params.getStoreSharing() == StoreSharing.PER_WRITER ? 1 : Math.max(1, params.getWriterThreadCnt());
+    }
+
+    /**
+     * Returns the apparent size of all files in or below {@code paths}.
+     */
+    protected static long sizeOf(List<Path> paths) throws IOException {
+        long size = 0;
+        for (Path path : paths) {
+            try (Stream<Path> files = Files.walk(path)) {
+                size += files.filter(Files::isRegularFile).mapToLong(file -> {
+                    try {
+                        return Files.size(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).sum();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Records statistics of a store in {@link #stats} after all writers and readers completed and before the store is
+     * closed. Does nothing by default.
+     *
+     * @param store the store
+     */
+    protected void recordStoreStats(Object store) {
+    }
+
     protected abstract Object createStore();
 
-    protected abstract Runnable createReader(Object store, CompletableFuture<Stopwatch> future);
+    protected abstract Runnable createReader(Object store, CompletableFuture<WorkerStats> future);
 
-    protected abstract Runnable createWriter(Object store, CompletableFuture<Stopwatch> future);
+    /**
+     * Creates a writer that persists the items returned by {@code items} into {@code store}.
+     *
+     * @param store  the store to write to
+     * @param items  the items to be persisted, either generated inline or replayed from a pre-generated corpus
+     * @param future the future to be completed by the writer after it persisted all items
+     * @return the writer
+     */
+    protected abstract Runnable createWriter(Object store, Iterator<T> items, CompletableFuture<WorkerStats> future);
 }
@@ -0,0 +1,15 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+/**
+ * Notified by store front-ends for every event they appended to the underlying store, in the order of appending.
+ */
+public interface AppendListener {
+
+    /**
+     * Called for an event before readers of the underlying store can see it.
+     *
+     * @param sequence   the number of events appended before this one
+     * @param startNanos the {@link System#nanoTime()} at which the event was handed to the front-end
+     */
+    void appended(long sequence, long startNanos);
+}
@@ -0,0 +1,181 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import de.uniluebeck.itm.eventstore.EventStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Asynchronous front-end of an {@link EventStore}. Producers publish events into a pre-allocated ring buffer and
+ * return immediately, a single consumer thread appends them to the store. Events that accumulated while the consumer
+ * was busy are appended as one batch (see {@link BatchingEventStore}).
+ *
+ * @param <T> the type of events in the store
+ */
+public class AsyncEventStore<T> implements Closeable {
+
+    private static final long AWAIT_PARK_NS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private static class Slot {
+
+        Object item;
+
+        long startNanos;
+    }
+
+    private final EventStore<T> eventStore;
+
+    private final ExecutorService executor;
+
+    private final Disruptor<Slot> disruptor;
+
+    private final RingBuffer<Slot> ringBuffer;
+
+    /**
+     * The sequence of the last event appended by the consumer.
+     */
+    private volatile long appended = -1;
+
+    private volatile IOException error;
+
+    /**
+     * Creates and starts a new front-end.
+     *
+     * @param eventStore   the store to append to
+     * @param ringSize     the number of slots in the ring buffer, must be a power of two
+     * @param waitStrategy how the consumer waits for new events
+     * @param producerType {@link ProducerType#SINGLE} if only one thread publishes events
+     * @param listener     notified about every appended event, may be {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public AsyncEventStore(EventStore<T> eventStore, int ringSize, AsyncWaitStrategy waitStrategy,
+                           ProducerType producerType, AppendListener listener) {
+
+        this.eventStore = checkNotNull(eventStore);
+        this.executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("AsyncEventStore-Consumer-%d").setDaemon(true).build()
+        );
+        this.disruptor = new Disruptor<>(Slot::new, ringSize, executor, producerType, waitStrategy.create());
+
+        BatchingEventStore<T> batchingStore = new BatchingEventStore<>(eventStore);
+        Object[] batch = new Object[ringSize];
+
+        this.disruptor.handleEventsWith(new EventHandler<Slot>() {
+
+            private int length;
+
+            @Override
+            public void onEvent(Slot slot, long sequence, boolean endOfBatch) throws Exception {
+
+                batch[length++] = slot.item;
+                slot.item = null;
+                if (listener != null) {
+                    listener.appended(sequence, slot.startNanos);
+                }
+
+                if (endOfBatch || length == batch.length) {
+                    try {
+                        batchingStore.storeEvents(batch, length);
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                    for (int i = 0; i < length; i++) {
+                        batch[i] = null;
+                    }
+                    length = 0;
+                    appended = sequence;
+                }
+            }
+        });
+
+        this.ringBuffer = disruptor.start();
+    }
+
+    /**
+     * Publishes {@code event} to be appended asynchronously.
+     *
+     * @param event      the event
+     * @param startNanos the {@link System#nanoTime()} at which the event was issued
+     * @return the sequence of the event, to be passed to {@link #awaitAppended(long)}
+     * @throws IOException if appending a previous event failed
+     */
+    public long storeEvent(T event, long startNanos) throws IOException {
+        checkError();
+        long sequence = ringBuffer.next();
+        Slot slot = ringBuffer.get(sequence);
+        slot.item = checkNotNull(event);
+        slot.startNanos = startNanos;
+        ringBuffer.publish(sequence);
+        return sequence;
+    }
+
+    /**
+     * Publishes the first {@code length} events of {@code events} to be appended asynchronously.
+     *
+     * @param events     the events
+     * @param length     the number of events, at most the ring size
+     * @param startNanos the {@link System#nanoTime()} at which the events were issued
+     * @return the sequence of the last event, to be passed to {@link #awaitAppended(long)}
+     * @throws IOException if appending a previous event failed
+     */
+    public long storeEvents(Object[] events, int length, long startNanos) throws IOException {
+        checkError();
+        long hi = ringBuffer.next(length);
+        long lo = hi - (length - 1);
+        for (int i = 0; i < length; i++) {
+            Slot slot = ringBuffer.get(lo + i);
+            slot.item = checkNotNull(events[i]);
+            slot.startNanos = startNanos;
+        }
+        ringBuffer.publish(lo, hi);
+        return hi;
+    }
+
+    /**
+     * Blocks until the event with the given sequence and all events published before it have been appended.
+     *
+     * @param sequence the sequence returned when publishing the event
+     * @throws IOException if appending failed
+     */
+    public void awaitAppended(long sequence) throws IOException {
+        while (appended < sequence) {
+            checkError();
+            LockSupport.parkNanos(AWAIT_PARK_NS);
+        }
+        checkError();
+    }
+
+    private void checkError() throws IOException {
+        IOException e = error;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    public EventStore<T> getEventStore() {
+        return eventStore;
+    }
+
+    /**
+     * Appends all published events, stops the consumer thread and closes the underlying store.
+     *
+     * @throws IOException if closing the store failed
+     */
+    @Override
+    public void close() throws IOException {
+        disruptor.shutdown();
+        executor.shutdown();
+        eventStore.close();
+    }
+}
@@ -0,0 +1,85 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.lmax.disruptor.dsl.ProducerType;
+import de.uniluebeck.itm.eventstore.EventStore;
+import de.uniluebeck.itm.util.scheduler.SchedulerService;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Like {@link EventStoreRun} but writers hand their items to an {@link AsyncEventStore}. The write latencies are
+ * therefore the producer-side latencies of publishing into the ring buffer, while the writers' total durations
+ * include waiting for the consumer to append their last item, i.e., they reflect the sustained throughput.
+ *
+ * @param <T> the type of items that will be persisted in and read from the event store
+ */
+public class AsyncEventStoreRun<T> extends EventStoreRun<T> {
+
+    private static class AsyncStore<T> extends Store<T> {
+
+        final AsyncEventStore<T> asyncStore;
+
+        AsyncStore(EventStore<T> eventStore, AtomicLongArray publishTimes, AsyncEventStore<T> asyncStore) {
+            super(eventStore, publishTimes, null, null);
+            this.asyncStore = asyncStore;
+        }
+
+        @Override
+        public void close() throws IOException {
+            asyncStore.close();
+        }
+    }
+
+    public AsyncEventStoreRun(int runNr, SchedulerService executor, Params params, Generator<T> generator) {
+        super(runNr, executor, params, generator);
+
+        if (params.getStoreSharing() == StoreSharing.SHARED_COMBINING) {
+            throw new IllegalArgumentException("The asynchronous store can not be combined, use " + StoreSharing.SHARED
+                    + " instead!");
+        }
+        if (params.getBatchSize() > params.getAsyncRingSize()) {
+            throw new IllegalArgumentException("Batches must fit into the ring buffer!");
+        }
+    }
+
+    @Override
+    protected Object createStore() {
+        EventStore<T> eventStore = createEventStore();
+        AtomicLongArray publishTimes = createPublishTimes();
+        AsyncEventStore<T> asyncStore = new AsyncEventStore<>(
+                eventStore,
+                params.getAsyncRingSize(),
+                params.getAsyncWaitStrategy(),
+                getWritersPerStore() == 1 ? ProducerType.SINGLE : ProducerType.MULTI,
+                createAppendListener(publishTimes)
+        );
+        return new AsyncStore<>(eventStore, publishTimes, asyncStore);
+    }
+
+    @Override
+    protected Appender<T> createAppender(Store<T> store) {
+
+        AsyncEventStore<T> asyncStore = ((AsyncStore<T>) store).asyncStore;
+
+        return new Appender<T>() {
+
+            private long lastSequence = -1;
+
+            @Override
+            public void append(T item, long startNanos) throws IOException {
+                lastSequence = asyncStore.storeEvent(item, startNanos);
+            }
+
+            @Override
+            public void appendBatch(Object[] batch, int length, long startNanos) throws IOException {
+                lastSequence = asyncStore.storeEvents(batch, length, startNanos);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                asyncStore.awaitAppended(lastSequence);
+            }
+        };
+    }
+}
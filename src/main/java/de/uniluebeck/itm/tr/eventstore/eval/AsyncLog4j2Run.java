@@ -0,0 +1,214 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import de.uniluebeck.itm.util.scheduler.SchedulerService;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Like {@link Log4j2Run} but every store is a separate {@link AsyncLoggerContext}, i.e., writers hand their items to
+ * the ring buffer of an async logger and a background thread appends them to a {@code RandomAccessFile} appender. The
+ * appender doesn't flush on every item but at the end of every batch the background thread takes from the ring buffer.
+ * Items are logged with a parameterized message whose parameter formats the item into the message text itself (see
+ * {@link ItemFormattable}), so that the whole pipeline is garbage-free.
+ * <p>
+ * The ring buffer size and the wait strategy of the background thread are taken from {@link Params#getAsyncRingSize()}
+ * and {@link Params#getAsyncWaitStrategy()}. Like with {@link AsyncEventStoreRun} the write latencies are producer-side
+ * latencies of publishing into the ring buffer. Closing a store waits until its ring buffer is drained.
+ *
+ * @param <T> the type of items that will be logged
+ */
+public class AsyncLog4j2Run<T> extends EventStoreRun<T> {
+
+    private static final String RING_BUFFER_SIZE_PROPERTY = "AsyncLogger.RingBufferSize";
+
+    private static final String WAIT_STRATEGY_PROPERTY = "AsyncLogger.WaitStrategy";
+
+    private static class LoggerStore<T> extends Store<T> {
+
+        final AsyncLoggerContext context;
+
+        final Logger logger;
+
+        LoggerStore(AsyncLoggerContext context, Logger logger) {
+            super(null, null, null, null);
+            this.context = context;
+            this.logger = logger;
+        }
+
+        @Override
+        public void close() throws IOException {
+            context.stop();
+        }
+    }
+
+    /**
+     * Formats the item it currently holds into the text of a log event. Async loggers format reusable parameterized
+     * messages (the default outside of web applications) on the calling thread before publishing them into the ring
+     * buffer, so every writer reuses one instance for all of its items. Character sequences are appended as they are.
+     * Other items are serialized with the buffer serializer of the generator into a reused buffer and appended as
+     * Base64, so formatting allocates nothing.
+     */
+    private static class ItemFormattable<T> implements StringBuilderFormattable {
+
+        private static final char[] BASE64 =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+        private final BufferSerializer<T> serializer;
+
+        private ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        T item;
+
+        ItemFormattable(BufferSerializer<T> serializer) {
+            this.serializer = serializer;
+        }
+
+        @Override
+        public void formatTo(StringBuilder text) {
+
+            if (item instanceof CharSequence) {
+                text.append((CharSequence) item);
+                return;
+            }
+
+            while (true) {
+                buffer.clear();
+                try {
+                    serializer.serialize(item, buffer);
+                    break;
+                } catch (BufferOverflowException e) {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                }
+            }
+
+            byte[] bytes = buffer.array();
+            int length = buffer.position();
+            for (int i = 0; i < length; i += 3) {
+                int b0 = bytes[i] & 0xFF;
+                int b1 = i + 1 < length ? bytes[i + 1] & 0xFF : 0;
+                int b2 = i + 2 < length ? bytes[i + 2] & 0xFF : 0;
+                text.append(BASE64[b0 >>> 2]);
+                text.append(BASE64[((b0 & 0x03) << 4) | (b1 >>> 4)]);
+                text.append(i + 1 < length ? BASE64[((b1 & 0x0F) << 2) | (b2 >>> 6)] : '=');
+                text.append(i + 2 < length ? BASE64[b2 & 0x3F] : '=');
+            }
+        }
+    }
+
+    private int storeCnt;
+
+    public AsyncLog4j2Run(int runNr, SchedulerService executor, Params params, Generator<T> generator) {
+        super(runNr, executor, params, generator);
+
+        if (params.getStoreSharing() == StoreSharing.SHARED_COMBINING) {
+            throw new IllegalArgumentException("Async loggers can not be combined, use " + StoreSharing.SHARED
+                    + " instead!");
+        }
+        if (params.getAsyncWaitStrategy() == AsyncWaitStrategy.BUSY_SPIN) {
+            throw new IllegalArgumentException("Async loggers do not support the " + AsyncWaitStrategy.BUSY_SPIN
+                    + " wait strategy!");
+        }
+    }
+
+    @Override
+    protected Object createStore() {
+        try {
+
+            String name = "async-log4j2-run-" + runNr + "-" + (++storeCnt);
+            File file = File.createTempFile(name, ".log");
+            file.deleteOnExit();
+            storeFiles.add(file.toPath());
+
+            ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+            builder.setConfigurationName(name);
+            builder.setStatusLevel(Level.WARN);
+            builder.add(builder.newAppender("File", "RandomAccessFile")
+                    .addAttribute("fileName", file.getAbsolutePath())
+                    .addAttribute("immediateFlush", false)
+                    .addAttribute("append", false)
+                    .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%m%n")));
+            builder.add(builder.newRootLogger(Level.INFO).add(builder.newAppenderRef("File")));
+
+            // the disruptor of an async logger context reads its settings from system properties when the context is
+            // started, they are restored right afterwards so that they don't leak into other contexts of the JVM
+            String ringBufferSize = System.setProperty(RING_BUFFER_SIZE_PROPERTY,
+                    String.valueOf(params.getAsyncRingSize()));
+            String waitStrategy = System.setProperty(WAIT_STRATEGY_PROPERTY,
+                    toLog4jWaitStrategy(params.getAsyncWaitStrategy()));
+
+            AsyncLoggerContext context = new AsyncLoggerContext(name);
+            try {
+                context.start(builder.build());
+            } finally {
+                restoreProperty(RING_BUFFER_SIZE_PROPERTY, ringBufferSize);
+                restoreProperty(WAIT_STRATEGY_PROPERTY, waitStrategy);
+            }
+
+            return new LoggerStore<>(context, context.getLogger(name));
+
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void restoreProperty(String key, String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static String toLog4jWaitStrategy(AsyncWaitStrategy waitStrategy) {
+        switch (waitStrategy) {
+            case YIELDING:
+                return "Yield";
+            case SLEEPING:
+                return "Sleep";
+            case BLOCKING:
+                return "Block";
+            default:
+                throw new IllegalArgumentException("Unsupported wait strategy " + waitStrategy);
+        }
+    }
+
+    @Override
+    protected Runnable createReader(Object store, CompletableFuture<WorkerStats> future) {
+        throw new RuntimeException("Readers are not supported for Log4j2 based stores!");
+    }
+
+    @Override
+    protected Appender<T> createAppender(Store<T> store) {
+
+        Logger logger = ((LoggerStore<T>) store).logger;
+        ItemFormattable<T> formattable = new ItemFormattable<>(generator.getBufferSerializer());
+
+        return new Appender<T>() {
+
+            @Override
+            public void append(T item, long startNanos) {
+                formattable.item = item;
+                logger.info("{}", formattable);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void appendBatch(Object[] batch, int length, long startNanos) {
+                for (int i = 0; i < length; i++) {
+                    append((T) batch[i], startNanos);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+
+/**
+ * How the consumer thread of a ring buffer waits for new events.
+ */
+public enum AsyncWaitStrategy {
+
+    BUSY_SPIN,
+
+    YIELDING,
+
+    SLEEPING,
+
+    BLOCKING;
+
+    public WaitStrategy create() {
+        switch (this) {
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case BLOCKING:
+                return new BlockingWaitStrategy();
+            default:
+                throw new RuntimeException("Missing case branch for AsyncWaitStrategy enum");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import de.uniluebeck.itm.util.scheduler.SchedulerService;
+
+import java.util.Set;
+
+/**
+ * A storage backend that can be evaluated. Backends are selected by {@link #getName() name} through
+ * {@link Params#getBackend()}, see {@link Backends} for the registry. Additional backends can be registered as
+ * {@link java.util.ServiceLoader} services.
+ */
+public interface Backend {
+
+    /**
+     * Returns the unique name under which this backend is selected and reported.
+     *
+     * @return the backend name
+     */
+    String getName();
+
+    /**
+     * Returns the workloads the backend supports in addition to plain writes.
+     *
+     * @return the capabilities
+     */
+    Set<Capability> getCapabilities();
+
+    /**
+     * Creates a run that evaluates this backend.
+     *
+     * @param runNr     the number of the run, -1 for the warm up run
+     * @param executor  the thread pool from which reader and writer threads will be taken
+     * @param params    the parameters for this run
+     * @param generator the generator function that is used to create items to be persisted
+     * @param <T>       the type of items that will be persisted
+     * @return the run
+     */
+    <T> Run<T> createRun(int runNr, SchedulerService executor, Params params, Generator<T> generator);
+}
@@ -0,0 +1,199 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import de.uniluebeck.itm.util.scheduler.SchedulerService;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+
+/**
+ * Registry of the available {@link Backend}s. Contains the built-in backends and all backends registered as
+ * {@link ServiceLoader} services of {@link Backend}.
+ */
+public abstract class Backends {
+
+    public static final String EVENTSTORE = "eventstore";
+
+    public static final String EVENTSTORE_ASYNC = "eventstore-async";
+
+    public static final String MAPPED_LOG = "mmap";
+
+    public static final String LOG4J = "log4j";
+
+    public static final String LOG4J2 = "log4j2";
+
+    public static final String LOG4J2_ASYNC = "log4j2-async";
+
+    private static final Map<String, Backend> BACKENDS = newLinkedHashMap();
+
+    static {
+        register(new RunClassBackend(EVENTSTORE, EventStoreRun.class,
+                EnumSet.of(Capability.READ, Capability.TAIL, Capability.BATCH, Capability.DURABILITY,
+                        Capability.COMPRESSION, Capability.REOPEN, Capability.SIMULATED_NODES)));
+        register(new RunClassBackend(EVENTSTORE_ASYNC, AsyncEventStoreRun.class,
+                EnumSet.of(Capability.READ, Capability.TAIL, Capability.BATCH, Capability.COMPRESSION,
+                        Capability.SIMULATED_NODES)));
+        register(new RunClassBackend(MAPPED_LOG, MappedLogRun.class,
+                EnumSet.of(Capability.READ, Capability.TAIL, Capability.BATCH, Capability.DURABILITY,
+                        Capability.REOPEN, Capability.ID_INDEX, Capability.NODE_INDEX, Capability.TIME_INDEX,
+                        Capability.SIMULATED_NODES)));
+        register(new RunClassBackend(LOG4J, Log4jRun.class, EnumSet.noneOf(Capability.class)));
+        register(new RunClassBackend(LOG4J2, Log4j2Run.class, EnumSet.noneOf(Capability.class)));
+        register(new RunClassBackend(LOG4J2_ASYNC, AsyncLog4j2Run.class, EnumSet.of(Capability.BATCH)));
+        for (Backend backend : ServiceLoader.load(Backend.class)) {
+            register(backend);
+        }
+    }
+
+    public static synchronized void register(Backend backend) {
+        if (BACKENDS.containsKey(backend.getName())) {
+            throw new IllegalArgumentException("A backend named \"" + backend.getName() + "\" is already registered");
+        }
+        BACKENDS.put(backend.getName(), backend);
+    }
+
+    public static synchronized Collection<Backend> all() {
+        return Collections.unmodifiableCollection(newArrayList(BACKENDS.values()));
+    }
+
+    /**
+     * Returns the backend registered under {@code name}. For backwards compatibility {@code name} may also be the
+     * fully-qualified class name of a {@link Run} implementation, which is then assumed to support all capabilities.
+     *
+     * @param name the backend name
+     * @return the backend
+     * @throws IllegalArgumentException if there is no such backend
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized Backend get(String name) {
+        Backend backend = BACKENDS.get(name);
+        if (backend != null) {
+            return backend;
+        }
+        try {
+            Class<?> clazz = Class.forName(name);
+            if (Run.class.isAssignableFrom(clazz)) {
+                return new RunClassBackend(name, (Class<? extends Run>) clazz, EnumSet.allOf(Capability.class));
+            }
+        } catch (ClassNotFoundException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Unknown backend \"" + name + "\", must be one of "
+                + Joiner.on(", ").join(BACKENDS.keySet()) + " or the fully-qualified class name of a Run");
+    }
+
+    /**
+     * Returns the workloads configured in {@code params} that {@code backend} does not support.
+     *
+     * @param backend the backend
+     * @param params  the parameters of a run
+     * @return human-readable descriptions of the unsupported workloads, empty if all are supported
+     */
+    public static List<String> getUnsupportedWorkloads(Backend backend, Params params) {
+        Set<Capability> capabilities = backend.getCapabilities();
+        List<String> unsupported = newArrayList();
+        if (params.getReaderThreadCnt() > 0) {
+            Capability required = getRequiredCapability(params.getReaderMode());
+            if (!capabilities.contains(required)) {
+                unsupported.add(params.getReaderMode() + " readers");
+            }
+        }
+        if (params.getIdIndex() && !capabilities.contains(Capability.ID_INDEX)) {
+            unsupported.add("ID indexes");
+        }
+        if (params.getNodeIndex() && !capabilities.contains(Capability.NODE_INDEX)) {
+            unsupported.add("node indexes");
+        }
+        if (params.getTimeIndex() && !capabilities.contains(Capability.TIME_INDEX)) {
+            unsupported.add("time indexes");
+        }
+        if (params.getBatchSize() > 1 && !capabilities.contains(Capability.BATCH)) {
+            unsupported.add("batches of " + params.getBatchSize() + " items");
+        }
+        if (params.getDurability() != Durability.NONE && !capabilities.contains(Capability.DURABILITY)) {
+            unsupported.add("durability " + params.getDurability());
+        }
+        if (params.getCompression() != Compression.NONE && !capabilities.contains(Capability.COMPRESSION)) {
+            unsupported.add("compression " + params.getCompression());
+        }
+        if (params.getReopenItems() > 0 && !capabilities.contains(Capability.REOPEN)) {
+            unsupported.add("reopening stores of " + params.getReopenItems() + " items");
+        }
+        boolean tail = params.getReaderThreadCnt() > 0 && params.getReaderMode() == ReaderMode.TAIL;
+        if (params.getReopenItems() > 0 && tail) {
+            // publish times are tracked for the items written in a run only, not for the items of a reopened store
+            unsupported.add(ReaderMode.TAIL + " readers of reopened stores");
+        }
+        if (params.getSimulatedNodes() > 0 && !capabilities.contains(Capability.SIMULATED_NODES)) {
+            unsupported.add(params.getSimulatedNodes() + " simulated nodes");
+        }
+        return unsupported;
+    }
+
+    private static Capability getRequiredCapability(ReaderMode readerMode) {
+        switch (readerMode) {
+            case TAIL:
+                return Capability.TAIL;
+            case LOOKUP:
+                return Capability.ID_INDEX;
+            case RANGE_QUERY:
+                return Capability.TIME_INDEX;
+            default:
+                return Capability.READ;
+        }
+    }
+
+    /**
+     * A backend whose runs are instances of a {@link Run} class with a constructor
+     * {@code (int, SchedulerService, Params, Generator)}.
+     */
+    private static class RunClassBackend implements Backend {
+
+        private final String name;
+
+        private final Class<? extends Run> runClass;
+
+        private final Set<Capability> capabilities;
+
+        private RunClassBackend(String name, Class<? extends Run> runClass, Set<Capability> capabilities) {
+            this.name = name;
+            this.runClass = runClass;
+            this.capabilities = Collections.unmodifiableSet(capabilities);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Set<Capability> getCapabilities() {
+            return capabilities;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Run<T> createRun(int runNr, SchedulerService executor, Params params, Generator<T> generator) {
+            try {
+                return runClass
+                        .getConstructor(int.class, SchedulerService.class, Params.class, Generator.class)
+                        .newInstance(runNr, executor, params, generator);
+            } catch (InvocationTargetException e) {
+                throw Throwables.propagate(e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Run class " + runClass.getName() + " must provide a constructor "
+                        + "(int, SchedulerService, Params, Generator)", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import de.uniluebeck.itm.eventstore.EventStore;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Adds batch writes to an {@link EventStore}. A batch is appended as one unit, i.e., the events of a batch are not
+ * interleaved with events written concurrently through other {@code BatchingEventStore} instances wrapping the same
+ * store, and the store's monitor is acquired once per batch instead of once per event.
+ *
+ * @param <T> the type of events in the store
+ */
+public class BatchingEventStore<T> {
+
+    private final EventStore<T> eventStore;
+
+    public BatchingEventStore(EventStore<T> eventStore) {
+        this.eventStore = checkNotNull(eventStore);
+    }
+
+    /**
+     * Appends the first {@code length} events of {@code events} as one unit.
+     *
+     * @param events the events to append
+     * @param length the number of events to append
+     * @throws IOException if appending fails, events of the batch that have been appended before are not rolled back
+     */
+    @SuppressWarnings("unchecked")
+    public void storeEvents(Object[] events, int length) throws IOException {
+        synchronized (eventStore) {
+            for (int i = 0; i < length; i++) {
+                eventStore.storeEvent((T) events[i]);
+            }
+        }
+    }
+
+    /**
+     * Appends {@code events} as one unit.
+     *
+     * @param events the events to append
+     * @throws IOException if appending fails, events of the batch that have been appended before are not rolled back
+     */
+    public void storeEvents(List<? extends T> events) throws IOException {
+        synchronized (eventStore) {
+            for (T event : events) {
+                eventStore.storeEvent(event);
+            }
+        }
+    }
+
+    public EventStore<T> getEventStore() {
+        return eventStore;
+    }
+}
@@ -0,0 +1,34 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializer contract that writes items directly into a caller-supplied buffer and reads them from a buffer slice,
+ * as opposed to {@link Generator#getSerializer()} and {@link Generator#getDeserializer()} which allocate a new byte
+ * array for every item.
+ *
+ * @param <T> the type of items
+ */
+public interface BufferSerializer<T> {
+
+    /**
+     * Writes {@code item} into {@code target} starting at its position and advances the position by the number of
+     * bytes written.
+     *
+     * @param item   the item to serialize
+     * @param target the buffer to write to
+     * @throws BufferOverflowException if the remaining bytes of {@code target} are not sufficient, the position of
+     *                                 {@code target} is undefined in that case
+     */
+    void serialize(T item, ByteBuffer target);
+
+    /**
+     * Reads an item from the remaining bytes of {@code source}, which must contain exactly one serialized item. The
+     * position of {@code source} is advanced to its limit.
+     *
+     * @param source the buffer slice to read from
+     * @return the item
+     */
+    T deserialize(ByteBuffer source);
+}
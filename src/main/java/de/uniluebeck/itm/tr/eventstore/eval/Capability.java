@@ -0,0 +1,60 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+/**
+ * Workloads a {@link Backend} may support in addition to plain (unbatched) writes.
+ */
+public enum Capability {
+
+    /**
+     * Readers that iterate over all stored items ({@link ReaderMode#SCAN}).
+     */
+    READ,
+
+    /**
+     * Readers that follow the store while it is written to ({@link ReaderMode#TAIL}).
+     */
+    TAIL,
+
+    /**
+     * Writers that persist {@link Params#getBatchSize()} items as one unit.
+     */
+    BATCH,
+
+    /**
+     * Forcing appended items to disk according to {@link Params#getDurability()}.
+     */
+    DURABILITY,
+
+    /**
+     * Compressing the payload of items according to {@link Params#getCompression()}.
+     */
+    COMPRESSION,
+
+    /**
+     * Reopening persistent pre-populated stores, see {@link Params#getReopenItems()}.
+     */
+    REOPEN,
+
+    /**
+     * Maintaining a primary index from the IDs of items to their records and looking items up by their ID
+     * ({@link ReaderMode#LOOKUP}).
+     */
+    ID_INDEX,
+
+    /**
+     * Maintaining a secondary index from node URNs to the records of the nodes and answering
+     * {@link ReaderMode#NODE_QUERY} with it.
+     */
+    NODE_INDEX,
+
+    /**
+     * Maintaining minimum and maximum timestamps per segment or block of records and answering
+     * {@link ReaderMode#RANGE_QUERY} with them or, without time index, by scanning all records.
+     */
+    TIME_INDEX,
+
+    /**
+     * Writer threads carrying simulated sensor nodes, see {@link Params#getSimulatedNodes()}.
+     */
+    SIMULATED_NODES
+}
@@ -0,0 +1,160 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import de.uniluebeck.itm.eventstore.EventStore;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Multi-producer front-end of an {@link EventStore} based on flat combining. Every producer thread owns a slot in
+ * which it publishes the event to be appended. Whichever producer acquires the combiner lock appends the pending
+ * events of all slots in one pass, while the other producers spin on their own slot until their event has been
+ * appended. Compared to all producers calling {@link EventStore#storeEvent(Object)} directly, the lock changes hands
+ * once per pass instead of once per event and waiting producers don't write to shared cache lines, as they only try
+ * to acquire the lock once it has been released.
+ *
+ * @param <T> the type of events in the store
+ */
+public class CombiningEventStore<T> {
+
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    @SuppressWarnings("unused")
+    private static final class Slot {
+
+        // padding to keep slots of different producers on different cache lines
+        long p1, p2, p3, p4, p5, p6, p7;
+
+        /**
+         * The pending event, set by the producer and cleared by the combiner after appending it.
+         */
+        volatile Object item;
+
+        /**
+         * Written by the producer before {@link #item}.
+         */
+        long startNanos;
+
+        /**
+         * Written by the combiner before clearing {@link #item}.
+         */
+        IOException error;
+
+        long q1, q2, q3, q4, q5, q6, q7;
+    }
+
+    private final EventStore<T> eventStore;
+
+    private final AppendListener listener;
+
+    private final ReentrantLock combinerLock = new ReentrantLock();
+
+    private final Slot[] slots;
+
+    private final AtomicInteger producerCnt = new AtomicInteger();
+
+    /**
+     * Guarded by {@link #combinerLock}.
+     */
+    private long sequence;
+
+    /**
+     * Creates a new front-end.
+     *
+     * @param eventStore   the store to append to
+     * @param maxProducers the maximum number of producers
+     * @param listener     notified about every appended event, may be {@code null}
+     */
+    public CombiningEventStore(EventStore<T> eventStore, int maxProducers, AppendListener listener) {
+        this.eventStore = checkNotNull(eventStore);
+        this.listener = listener;
+        this.slots = new Slot[maxProducers];
+        for (int i = 0; i < maxProducers; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Registers a new producer. Every producer must only be used by one thread at a time.
+     *
+     * @return the producer
+     */
+    public Producer newProducer() {
+        int idx = producerCnt.getAndIncrement();
+        if (idx >= slots.length) {
+            throw new IllegalStateException("Maximum number of " + slots.length + " producers exceeded");
+        }
+        return new Producer(slots[idx]);
+    }
+
+    public EventStore<T> getEventStore() {
+        return eventStore;
+    }
+
+    public class Producer {
+
+        private final Slot slot;
+
+        private Producer(Slot slot) {
+            this.slot = slot;
+        }
+
+        /**
+         * Appends {@code event} to the store, returning after it has been appended.
+         *
+         * @param event      the event to append
+         * @param startNanos the time the event was issued, passed to the {@link AppendListener}
+         * @throws IOException if appending the event failed
+         */
+        public void storeEvent(T event, long startNanos) throws IOException {
+
+            slot.startNanos = startNanos;
+            slot.item = checkNotNull(event);
+
+            int spins = 0;
+            while (slot.item != null) {
+                // reading the lock state keeps the cache line of the lock shared, trying to acquire it doesn't
+                if (!combinerLock.isLocked() && combinerLock.tryLock()) {
+                    try {
+                        combine();
+                    } finally {
+                        combinerLock.unlock();
+                    }
+                } else if (++spins > SPINS_BEFORE_YIELD) {
+                    Thread.yield();
+                }
+            }
+
+            IOException error = slot.error;
+            if (error != null) {
+                slot.error = null;
+                throw error;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void combine() {
+        int cnt = Math.min(producerCnt.get(), slots.length);
+        for (int i = 0; i < cnt; i++) {
+            Slot slot = slots[i];
+            Object item = slot.item;
+            if (item != null) {
+                try {
+                    // before appending, so that readers never see the event before the listener
+                    if (listener != null) {
+                        listener.appended(sequence, slot.startNanos);
+                    }
+                    eventStore.storeEvent((T) item);
+                    sequence++;
+                } catch (IOException e) {
+                    slot.error = e;
+                }
+                slot.item = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+/**
+ * How the serialized payload of items is compressed before it is handed to the store.
+ */
+public enum Compression {
+
+    /**
+     * Payloads are stored as serialized.
+     */
+    NONE,
+
+    /**
+     * Every payload is compressed on its own with {@link java.util.zip.Deflater}.
+     */
+    RECORD,
+
+    /**
+     * Every payload is compressed with {@link java.util.zip.Deflater} using a preset dictionary built from a sample of
+     * generated items. This exploits the redundancy between small consecutive events like block compression does,
+     * while every event can still be decompressed on its own.
+     */
+    DICTIONARY
+}
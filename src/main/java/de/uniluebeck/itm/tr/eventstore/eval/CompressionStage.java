@@ -0,0 +1,169 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.base.Function;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Wraps the serializer and deserializer of a {@link Generator} so that payloads are compressed on the write path and
+ * decompressed transparently on the read path. Compressed payloads consist of the uncompressed length (4 bytes)
+ * followed by the raw deflate stream. The stage counts the payload bytes before and after compression, also if
+ * compression is {@link Compression#NONE}. Thread-safe.
+ *
+ * @param <T> the type of items
+ */
+class CompressionStage<T> {
+
+    /**
+     * The maximum dictionary size of the deflate format.
+     */
+    private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int DICTIONARY_SAMPLE_ITEMS = 1024;
+
+    private static final int LENGTH_PREFIX = 4;
+
+    private final Compression compression;
+
+    private final byte[] dictionary;
+
+    private final ThreadLocal<Deflater> deflaters;
+
+    private final ThreadLocal<Inflater> inflaters;
+
+    private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[1024]);
+
+    private final LongAdder uncompressedBytes = new LongAdder();
+
+    private final LongAdder compressedBytes = new LongAdder();
+
+    private CompressionStage(Compression compression, int level, byte[] dictionary) {
+        this.compression = compression;
+        this.dictionary = dictionary;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+        this.inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+    }
+
+    /**
+     * Creates a compression stage. For {@link Compression#DICTIONARY} the dictionary is built from items of a generator
+     * split off {@code generator}, so this must be called by the thread owning {@code generator}.
+     *
+     * @param compression the compression
+     * @param level       the deflate compression level (1-9)
+     * @param generator   the generator of the items to be compressed
+     * @return the compression stage
+     */
+    static <T> CompressionStage<T> create(Compression compression, int level, Generator<T> generator) {
+        if (compression != Compression.NONE && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("The compression level must be between " + Deflater.BEST_SPEED + " and "
+                    + Deflater.BEST_COMPRESSION + "!");
+        }
+        byte[] dictionary = compression == Compression.DICTIONARY ? buildDictionary(generator.split()) : null;
+        return new CompressionStage<>(compression, level, dictionary);
+    }
+
+    /**
+     * Concatenates the payloads of sample items. Deflate finds matches best at the end of the dictionary, so only the
+     * last {@link #MAX_DICTIONARY_SIZE} bytes are kept.
+     */
+    private static <T> byte[] buildDictionary(Generator<T> generator) {
+        ByteArrayOutputStream samples = new ByteArrayOutputStream();
+        Function<T, byte[]> serializer = generator.getSerializer();
+        for (int i = 0; i < DICTIONARY_SAMPLE_ITEMS; i++) {
+            byte[] payload = serializer.apply(generator.next());
+            samples.write(payload, 0, payload.length);
+        }
+        byte[] bytes = samples.toByteArray();
+        return Arrays.copyOfRange(bytes, Math.max(0, bytes.length - MAX_DICTIONARY_SIZE), bytes.length);
+    }
+
+    Compression getCompression() {
+        return compression;
+    }
+
+    long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * Restarts counting the payload bytes from zero.
+     */
+    void resetCounters() {
+        uncompressedBytes.reset();
+        compressedBytes.reset();
+    }
+
+    Function<T, byte[]> compressing(Function<T, byte[]> serializer) {
+        return item -> {
+            byte[] payload = serializer.apply(item);
+            byte[] stored = compression == Compression.NONE ? payload : compress(payload);
+            uncompressedBytes.add(payload.length);
+            compressedBytes.add(stored.length);
+            return stored;
+        };
+    }
+
+    Function<byte[], T> decompressing(Function<byte[], T> deserializer) {
+        return compression == Compression.NONE ? deserializer : stored -> deserializer.apply(decompress(stored));
+    }
+
+    private byte[] compress(byte[] payload) {
+
+        Deflater deflater = deflaters.get();
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(payload);
+        deflater.finish();
+
+        byte[] buffer = buffers.get();
+        int length = LENGTH_PREFIX;
+        while (!deflater.finished()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                buffers.set(buffer);
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        deflater.reset();
+
+        ByteBuffer.wrap(buffer).putInt(0, payload.length);
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private byte[] decompress(byte[] stored) {
+
+        Inflater inflater = inflaters.get();
+        if (dictionary != null) {
+            inflater.setDictionary(dictionary);
+        }
+        inflater.setInput(stored, LENGTH_PREFIX, stored.length - LENGTH_PREFIX);
+
+        byte[] payload = new byte[ByteBuffer.wrap(stored).getInt(0)];
+        try {
+            int length = 0;
+            while (length < payload.length && !inflater.finished()) {
+                int inflated = inflater.inflate(payload, length, payload.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed payload");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed payload", e);
+        } finally {
+            inflater.reset();
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,28 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+/**
+ * When appended items are forced to disk.
+ */
+public enum Durability {
+
+    /**
+     * Never, the operating system decides when to write dirty pages.
+     */
+    NONE,
+
+    /**
+     * After every {@link Params#getDurabilityIntervalEvents()} events appended to a store.
+     */
+    EVERY_N_EVENTS,
+
+    /**
+     * After an append if the last sync of the store is at least {@link Params#getDurabilityIntervalMillis()} ms ago.
+     */
+    EVERY_T_MS,
+
+    /**
+     * After every append call, i.e., after every batch if writers write batches. Concurrent writers of a shared store
+     * piggyback on a sync that started after their append (group commit).
+     */
+    PER_BATCH
+}
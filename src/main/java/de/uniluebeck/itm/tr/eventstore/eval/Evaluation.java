@@ -1,13 +1,17 @@
 package de.uniluebeck.itm.tr.eventstore.eval;
 
+import com.google.common.base.Joiner;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import de.uniluebeck.itm.tr.common.config.ConfigWithLoggingAndProperties;
-import de.uniluebeck.itm.util.propconf.PropConfModule;
 import de.uniluebeck.itm.util.scheduler.SchedulerService;
 import de.uniluebeck.itm.util.scheduler.SchedulerServiceFactory;
 import de.uniluebeck.itm.util.scheduler.SchedulerServiceModule;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newLinkedList;
@@ -32,54 +36,130 @@ public class Evaluation {
             printHelpAndExit(config, Evaluation.class);
         }
 
-        // parse evaluation parameters from config file
-        Injector injector = Guice.createInjector(
-                new PropConfModule(config.config, Params.class),
-                new SchedulerServiceModule()
-        );
-
-        Params params = injector.getInstance(Params.class);
+        // parse evaluation parameters from config file, values may be lists or ranges to sweep over
+        List<ParamSweep.Configuration> configurations;
+        try {
+            configurations = ParamSweep.load(config.config).configurations();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read config file " + config.config, e);
+        }
 
         // create thread pool that will execute the various writer and reader threads
+        Injector injector = Guice.createInjector(new SchedulerServiceModule());
         SchedulerService executor = injector.getInstance(SchedulerServiceFactory.class).create(-1, "EvaluationExecutor");
         executor.startAsync().awaitRunning();
 
-        // instantiate generator that produces items to be persisted
-        Generator<?> generator = injector.getInstance(params.getGeneratorClass());
+        final ListMultimap<String, RunStats> stats = LinkedListMultimap.create();
 
-        // warm up phase, results will be dismissed
-        if (params.getWarmUp()) {
-            System.out.println("####### Executing warm up phase");
-            executeRun(executor, params, generator, -1);
-            System.out.println("####### Warm up phase done, executing runs. This could take a while");
-        }
+        // report settings are taken from the first configuration, they are not meant to be swept
+        Params reportParams = null;
+
+        for (int i = 0; i < configurations.size(); i++) {
+
+            ParamSweep.Configuration configuration = configurations.get(i);
+            if (configurations.size() > 1) {
+                System.out.println("####### Configuration " + (i + 1) + "/" + configurations.size() + ": " + configuration);
+            }
+
+            Injector configurationInjector = configuration.createInjector();
+            Params params = configurationInjector.getInstance(Params.class);
+            if (reportParams == null) {
+                reportParams = params;
+            }
 
-        // execute a run
-        List<RunStats> stats = runEvaluation(executor, params, generator);
+            // resolve the backend to be evaluated and skip workloads it can't execute
+            Backend backend = Backends.get(params.getBackend());
+            List<String> unsupported = Backends.getUnsupportedWorkloads(backend, params);
+            if (!unsupported.isEmpty()) {
+                System.out.println("####### Skipping configuration, backend " + backend.getName()
+                        + " does not support " + Joiner.on(", ").join(unsupported));
+                continue;
+            }
+
+            // instantiate generator that produces items to be persisted
+            Generator<?> generator = configurationInjector.getInstance(params.getGeneratorClass());
+
+            // warm up phase, results will be dismissed
+            if (params.getWarmUp()) {
+                System.out.println("####### Executing warm up phase");
+                executeRun(executor, backend, params, generator, -1);
+                System.out.println("####### Warm up phase done, executing runs. This could take a while");
+            }
+
+            // execute the runs
+            stats.putAll(configuration.getKey(), runEvaluation(executor, backend, params, generator));
+
+            if (params.getGcBetweenRuns() && i < configurations.size() - 1) {
+                gc();
+            }
+        }
 
         System.out.println(RunStatsHelper.toTableString(stats));
 
         printCSV(stats);
 
         executor.stopAsync().awaitTerminated();
+
+        boolean regressed = report(reportParams, stats);
         System.out.println("Finished");
 
-        System.exit(0);
+        System.exit(regressed ? 2 : 0);
+    }
+
+    /**
+     * Prints the aggregated stats per configuration, writes them to the report file and compares them against the
+     * baseline file (if configured).
+     *
+     * @return {@code true} if a metric regressed significantly compared to the baseline
+     */
+    private static boolean report(Params params, ListMultimap<String, RunStats> stats) {
+
+        EvaluationReport report = EvaluationReport.of(stats);
+        System.out.println(report.toTableString());
+
+        try {
+
+            if (!params.getReportFile().isEmpty()) {
+                report.write(new File(params.getReportFile()));
+                System.out.println("Report written to " + params.getReportFile());
+            }
+
+            if (params.getBaselineFile().isEmpty()) {
+                return false;
+            }
+
+            EvaluationReport baseline = EvaluationReport.read(new File(params.getBaselineFile()));
+            List<EvaluationReport.Regression> regressions =
+                    report.findRegressions(baseline, params.getRegressionTolerance());
+
+            if (regressions.isEmpty()) {
+                System.out.println("####### No significant regressions compared to " + params.getBaselineFile());
+                return false;
+            }
+
+            System.out.println("####### " + regressions.size() + " significant regression(s) compared to "
+                    + params.getBaselineFile());
+            regressions.forEach(System.out::println);
+            return true;
+
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
 
-    private static void printCSV(List<RunStats> stats) {
-        System.out.println(stats.get(0).toCsvHeaders());
-        stats.stream().map(RunStats::toCsv).forEach(System.out::println);
+    private static void printCSV(ListMultimap<String, RunStats> stats) {
+        RunStatsHelper.toCsv(stats).forEach(System.out::println);
     }
 
-    private static <T> List<RunStats> runEvaluation(SchedulerService executor, Params params, Generator<T> generator) {
+    private static <T> List<RunStats> runEvaluation(SchedulerService executor, Backend backend, Params params,
+                                                    Generator<T> generator) {
 
         final List<RunStats> stats = newLinkedList();
 
         for (int runNr = 1; runNr <= params.getRuns(); runNr++) {
 
-            stats.add(executeRun(executor, params, generator, runNr));
+            stats.add(executeRun(executor, backend, params, generator, runNr));
 
             if (params.getGcBetweenRuns() && runNr < params.getRuns()) {
                 gc();
@@ -89,9 +169,10 @@ public class Evaluation {
         return stats;
     }
 
-    private static <T> RunStats<T> executeRun(SchedulerService executor, Params params, Generator<T> generator, int runNr) {
+    private static <T> RunStats<T> executeRun(SchedulerService executor, Backend backend, Params params,
+                                              Generator<T> generator, int runNr) {
 
-        Run<T> run = new EventStoreRun<>(runNr, executor, params, generator);
+        Run<T> run = backend.createRun(runNr, executor, params, generator);
 
         run.startAsync();
         run.awaitTerminated();
@@ -0,0 +1,196 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+
+/**
+ * Aggregates the {@link RunStats} of repeated runs per configuration into {@link SummaryStats} for every
+ * {@link Metric}. Reports can be stored as JSON and compared against a stored baseline report.
+ */
+public class EvaluationReport {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final List<ConfigurationSummary> configurations;
+
+    private EvaluationReport(List<ConfigurationSummary> configurations) {
+        this.configurations = configurations;
+    }
+
+    public static EvaluationReport of(ListMultimap<String, RunStats> stats) {
+        List<ConfigurationSummary> configurations = newArrayList();
+        for (Map.Entry<String, List<RunStats>> entry : Multimaps.asMap(stats).entrySet()) {
+            Map<Metric, SummaryStats> metrics = newLinkedHashMap();
+            for (Metric metric : Metric.values()) {
+                double[] values = entry.getValue().stream().mapToDouble(metric::valueOf).toArray();
+                metrics.put(metric, SummaryStats.of(values));
+            }
+            String backend = entry.getValue().get(0).getBackend();
+            configurations.add(new ConfigurationSummary(entry.getKey(), backend, entry.getValue().size(), metrics));
+        }
+        return new EvaluationReport(configurations);
+    }
+
+    public static EvaluationReport read(File file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, EvaluationReport.class);
+        }
+    }
+
+    public void write(File file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+    }
+
+    public List<ConfigurationSummary> getConfigurations() {
+        return configurations;
+    }
+
+    /**
+     * Compares this report against {@code baseline}. A metric of a configuration regressed if its mean is worse than
+     * the baseline mean by more than {@code tolerance} and if the difference is statistically significant (Welch's
+     * t-test at the 95% level). Configurations missing in either report are ignored.
+     *
+     * @param baseline  the baseline report, e.g., from the last release
+     * @param tolerance the relative tolerance, e.g., 0.05 for 5%
+     * @return the regressions found, empty if there are none
+     */
+    public List<Regression> findRegressions(EvaluationReport baseline, double tolerance) {
+        List<Regression> regressions = newArrayList();
+        for (ConfigurationSummary current : configurations) {
+            ConfigurationSummary previous = baseline.getConfiguration(current.key);
+            if (previous == null) {
+                continue;
+            }
+            for (Map.Entry<Metric, SummaryStats> entry : current.metrics.entrySet()) {
+                SummaryStats before = previous.metrics.get(entry.getKey());
+                SummaryStats after = entry.getValue();
+                if (before != null
+                        && entry.getKey().isWorse(before.getMean(), after.getMean(), tolerance)
+                        && after.differsSignificantlyFrom(before)) {
+                    regressions.add(new Regression(current.key, entry.getKey(), before, after));
+                }
+            }
+        }
+        return regressions;
+    }
+
+    private ConfigurationSummary getConfiguration(String key) {
+        for (ConfigurationSummary configuration : configurations) {
+            if (configuration.key.equals(key)) {
+                return configuration;
+            }
+        }
+        return null;
+    }
+
+    public String toTableString() {
+        Formatter formatter = new Formatter();
+        formatter.format("%-50s %-16s %-24s %4s %16s %16s %16s %16s%n",
+                "CONFIGURATION", "BACKEND", "METRIC", "N", "MEAN", "MEDIAN", "STDDEV", "CI95");
+        for (ConfigurationSummary configuration : configurations) {
+            configuration.metrics.forEach((metric, stats) -> formatter.format(
+                    "%-50s %-16s %-24s %4d %16.1f %16.1f %16.1f %16.1f%n",
+                    configuration.key, configuration.backend, metric, stats.getN(), stats.getMean(), stats.getMedian(), stats.getStdDev(),
+                    stats.getCi95()
+            ));
+        }
+        return formatter.toString();
+    }
+
+    /**
+     * The aggregated metrics of all runs of one configuration.
+     */
+    public static class ConfigurationSummary {
+
+        private final String key;
+
+        private final String backend;
+
+        private final int runs;
+
+        private final Map<Metric, SummaryStats> metrics;
+
+        private ConfigurationSummary(String key, String backend, int runs, Map<Metric, SummaryStats> metrics) {
+            this.key = key;
+            this.backend = backend;
+            this.runs = runs;
+            this.metrics = metrics;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getBackend() {
+            return backend;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public Map<Metric, SummaryStats> getMetrics() {
+            return metrics;
+        }
+    }
+
+    /**
+     * A metric of a configuration that is significantly worse than in the baseline.
+     */
+    public static class Regression {
+
+        private final String configuration;
+
+        private final Metric metric;
+
+        private final SummaryStats baseline;
+
+        private final SummaryStats current;
+
+        private Regression(String configuration, Metric metric, SummaryStats baseline, SummaryStats current) {
+            this.configuration = configuration;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+        }
+
+        public String getConfiguration() {
+            return configuration;
+        }
+
+        public Metric getMetric() {
+            return metric;
+        }
+
+        public SummaryStats getBaseline() {
+            return baseline;
+        }
+
+        public SummaryStats getCurrent() {
+            return current;
+        }
+
+        @Override
+        public String toString() {
+            double change = (current.getMean() - baseline.getMean()) / baseline.getMean() * 100;
+            return String.format("%s [%s]: %s -> %s (%+.1f%%)", metric, configuration, baseline, current, change);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.util.Iterator;
+
+/**
+ * A fixed set of items that is generated before a run starts and then replayed by the writers, so that the cost of
+ * {@link Generator#next()} is not part of the measured write path. Replaying does not allocate: every writer gets its
+ * own cursor that cycles through the (immutable) items.
+ *
+ * @param <T> the type of the items
+ */
+public class EventCorpus<T> {
+
+    private final Object[] items;
+
+    private final int mask;
+
+    private EventCorpus(Object[] items) {
+        this.items = items;
+        this.mask = items.length - 1;
+    }
+
+    /**
+     * Generates {@code size} items using {@code generator}.
+     *
+     * @param generator the generator to create the items
+     * @param size      the number of items, will be rounded up to the next power of two
+     * @param <T>       the type of the items
+     * @return the corpus
+     */
+    public static <T> EventCorpus<T> pregenerate(Generator<T> generator, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be > 0");
+        }
+        int capacity = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+        Object[] items = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            items[i] = generator.next();
+        }
+        return new EventCorpus<>(items);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Returns an endless iterator over the items of this corpus. Iterators are not thread-safe, every writer must use
+     * its own one.
+     *
+     * @param offset the index of the first item to be returned
+     * @return an iterator cycling through the items
+     */
+    public Iterator<T> replay(int offset) {
+        return new Iterator<T>() {
+
+            private int cursor = offset;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                return (T) items[cursor++ & mask];
+            }
+        };
+    }
+}
@@ -1,7 +1,6 @@
 package de.uniluebeck.itm.tr.eventstore.eval;
 
 import com.google.common.base.Function;
-import com.google.common.base.Stopwatch;
 import de.uniluebeck.itm.eventstore.CloseableIterator;
 import de.uniluebeck.itm.eventstore.EventContainer;
 import de.uniluebeck.itm.eventstore.EventStore;
@@ -9,32 +8,348 @@ import de.uniluebeck.itm.eventstore.EventStoreFactory;
 import de.uniluebeck.itm.util.scheduler.SchedulerService;
 import net.openhft.chronicle.tools.ChronicleTools;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.SplittableRandom;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 public class EventStoreRun<T> extends AbstractRun<T> {
 
+    /**
+     * A store created by this run together with the state shared by all writers and readers using it.
+     */
+    protected static class Store<T> implements Closeable {
+
+        final EventStore<T> eventStore;
+
+        /**
+         * The {@link System#nanoTime()} at which the n-th event of the store was handed to the store, only tracked
+         * if readers tail the store.
+         */
+        final AtomicLongArray publishTimes;
+
+        /**
+         * The multi-producer front-end, only used if writers share the store with {@link StoreSharing#SHARED_COMBINING}.
+         */
+        final CombiningEventStore<T> combiningStore;
+
+        /**
+         * Forces appended events to disk according to {@link Params#getDurability()}, {@code null} if the store
+         * doesn't support it.
+         */
+        final Syncer syncer;
+
+        /**
+         * The number of events appended so far, guarded by the monitor of {@link #eventStore}. Not used with the
+         * combining front-end, which keeps its own count.
+         */
+        long sequence;
+
+        Store(EventStore<T> eventStore, AtomicLongArray publishTimes, CombiningEventStore<T> combiningStore,
+              Syncer syncer) {
+            this.eventStore = eventStore;
+            this.publishTimes = publishTimes;
+            this.combiningStore = combiningStore;
+            this.syncer = syncer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (syncer != null) {
+                syncer.close();
+            }
+            eventStore.close();
+        }
+    }
+
+    /**
+     * Appends the items of one writer thread to a {@link Store}.
+     */
+    protected interface Appender<T> {
+
+        void append(T item, long startNanos) throws IOException;
+
+        void appendBatch(Object[] batch, int length, long startNanos) throws IOException;
+
+        /**
+         * Blocks until all items passed to this appender have been appended to the store.
+         *
+         * @throws IOException if appending failed
+         */
+        default void flush() throws IOException {
+        }
+    }
+
+    /**
+     * Marks a persistent store as completely populated, see {@link #reopenStore()}.
+     */
+    private static final String POPULATED_MARKER = ".populated";
+
+    /**
+     * Compresses the payload of items before they are handed to the event stores created by this run.
+     */
+    protected final CompressionStage<T> compressionStage;
+
+    private int reopenedStoreCnt;
+
+    private int writerCnt;
+
     public EventStoreRun(int runNr, SchedulerService executor, Params params, Generator<T> generator) {
         super(runNr, executor, params, generator);
+
+        if (params.getStoreSharing() == StoreSharing.SHARED_COMBINING && params.getBatchSize() > 1) {
+            throw new IllegalArgumentException("Batches can not be combined, use " + StoreSharing.SHARED + " instead!");
+        }
+        if (params.getReopenItems() > 0 && params.getStoreSharing() == StoreSharing.SHARED_COMBINING) {
+            throw new IllegalArgumentException("Reopened stores can not be combined, use " + StoreSharing.SHARED
+                    + " instead!");
+        }
+        if (params.getReopenItems() > 0 && tailsStores()) {
+            throw new IllegalArgumentException("Reopened stores can not be tailed, use " + ReaderMode.SCAN
+                    + " instead!");
+        }
+        if (tailsStores() && params.getWritesPerThread() * getWritersPerStore() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tailed stores can hold at most " + Integer.MAX_VALUE + " items!");
+        }
+        boolean nodeQueries = params.getReaderThreadCnt() > 0 && params.getReaderMode() == ReaderMode.NODE_QUERY;
+        if ((params.getNodeIndex() || nodeQueries) && generator.getNodeUrnFunction() == null) {
+            throw new IllegalArgumentException("Items of " + generator.getGeneratedClass().getSimpleName()
+                    + " don't originate from nodes!");
+        }
+
+        if (params.getSimulatedNodes() > 0) {
+            if (params.getSimulatedNodes() < params.getWriterThreadCnt()) {
+                throw new IllegalArgumentException("Every writer thread must carry at least one simulated node!");
+            }
+            if (params.getSimulatedNodeRate() <= 0) {
+                throw new IllegalArgumentException("The rate of simulated nodes must be greater than 0!");
+            }
+            if (params.getBatchSize() > 1 || params.getWriterTargetRate() > 0) {
+                throw new IllegalArgumentException("Simulated nodes write single items at their own rate, batches "
+                        + "and a writer target rate can not be used with them!");
+            }
+        }
+
+        this.compressionStage = CompressionStage.create(params.getCompression(), params.getCompressionLevel(), generator);
+        stats.setCompressionStage(compressionStage);
     }
 
     @Override
     protected Object createStore() {
+        if (params.getReopenItems() > 0) {
+            return reopenStore();
+        }
+        Path dir = createStoreDirectory();
+        storeFiles.add(dir);
+        try {
+            return openStore(dir, params.getDurability());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Opens the store in {@code dir}, which is either empty or contains a store created by this method before.
+     *
+     * @param dir        the directory of the store
+     * @param durability when the store forces appended items to disk
+     * @return the store
+     * @throws IOException if the store can't be opened
+     */
+    protected Store<T> openStore(Path dir, Durability durability) throws IOException {
+        EventStore<T> eventStore = createEventStore(dir);
+        AtomicLongArray publishTimes = createPublishTimes();
+        CombiningEventStore<T> combiningStore = params.getStoreSharing() != StoreSharing.SHARED_COMBINING ? null :
+                new CombiningEventStore<>(eventStore, getWritersPerStore(), createAppendListener(publishTimes));
+        Syncer syncer = createSyncer(durability, Syncer.forDirectory(dir));
+        return new Store<>(eventStore, publishTimes, combiningStore, syncer);
+    }
+
+    /**
+     * Returns the bytes of the files of {@code store} that hold data, for stores that pre-allocate their files.
+     *
+     * @param store the store
+     * @return the used bytes, -1 if the store doesn't report them
+     */
+    protected long getUsedBytes(Store<T> store) {
+        return -1;
+    }
+
+    /**
+     * Reads the first item of a store that has just been opened.
+     *
+     * @param store the store
+     * @throws IOException if reading failed
+     */
+    protected void readFirstItem(Store<T> store) throws IOException {
+        try (CloseableIterator<EventContainer<T>> iterator = store.eventStore.getAllEvents()) {
+            if (iterator.hasNext()) {
+                iterator.next().getEvent();
+            }
+        }
+    }
+
+    /**
+     * Opens a persistent store holding {@link Params#getReopenItems()} items and records how long opening it, reading
+     * its first item and appending an item took. The store is populated first if it doesn't exist yet. Stores are
+     * identified by the run class, the item class, the compression, the number of items and the number of the store
+     * within the run, so that subsequent runs (also in other JVMs) reopen the same stores. The items written during a
+     * run are appended to the store, i.e., the store grows by the items written in every run.
+     */
+    private Store<T> reopenStore() {
+
+        Path dir = getReopenDirectory().resolve(getClass().getSimpleName()
+                + "-" + generator.getGeneratedClass().getSimpleName()
+                + "-" + params.getCompression()
+                + "-" + params.getReopenItems()
+                + "-" + (++reopenedStoreCnt));
+
+        try {
+
+            Generator<T> items = generator.split();
+            if (!Files.exists(dir.resolve(POPULATED_MARKER))) {
+                populate(dir, items);
+            }
+            storeFiles.add(dir);
+
+            long start = System.nanoTime();
+            Store<T> store = openStore(dir, params.getDurability());
+            long opened = System.nanoTime();
+            readFirstItem(store);
+            long firstRead = System.nanoTime();
+            Appender<T> appender = createAppender(store);
+            appender.append(items.next(), firstRead);
+            appender.flush();
+            long firstAppend = System.nanoTime();
+
+            System.out.println("Reopened " + dir + " in " + (opened - start) / 1000 + " us, first read after "
+                    + (firstRead - opened) / 1000 + " us, first append after " + (firstAppend - firstRead) / 1000
+                    + " us");
+
+            stats.addReopen(opened - start, firstRead - opened, firstAppend - firstRead);
+            // don't account populating and probing as part of the run, nor the items of the store written before
+            compressionStage.resetCounters();
+            stats.addReopenedBytes(sizeOf(Collections.singletonList(dir)), getUsedBytes(store));
+            return store;
+
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void populate(Path dir, Iterator<T> items) throws IOException {
+
+        System.out.println("Populating " + dir + " with " + params.getReopenItems() + " items");
+
+        if (Files.exists(dir)) {
+            // left over by an interrupted population
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Iterator<Path> it = files.sorted(Comparator.reverseOrder()).iterator(); it.hasNext(); ) {
+                    Files.delete(it.next());
+                }
+            }
+        }
+        Files.createDirectories(dir);
+
+        try (Store<T> store = openStore(dir, Durability.NONE)) {
+            Appender<T> appender = createAppender(store);
+            for (long i = 0; i < params.getReopenItems(); i++) {
+                appender.append(items.next(), System.nanoTime());
+            }
+            appender.flush();
+        }
+
+        Files.createFile(dir.resolve(POPULATED_MARKER));
+    }
+
+    private Path getReopenDirectory() {
+        return params.getReopenDir().isEmpty() ?
+                Paths.get(System.getProperty("java.io.tmpdir"), "EventStoreEvaluationReopen") :
+                Paths.get(params.getReopenDir());
+    }
+
+    protected EventStore<T> createEventStore() {
+        Path dir = createStoreDirectory();
+        storeFiles.add(dir);
+        return createEventStore(dir);
+    }
+
+    protected EventStore<T> createEventStore(Path dir) {
         return createEventStore(
+                dir,
                 generator.getGeneratedClass(),
-                generator.getSerializer(),
-                generator.getDeserializer()
+                compressionStage.compressing(generator.getSerializer()),
+                compressionStage.decompressing(generator.getDeserializer())
+        );
+    }
+
+    /**
+     * Creates the syncer forcing the items appended to a store to disk according to {@code durability}. The latencies
+     * of syncing are recorded in the stats of this run.
+     *
+     * @param durability when the store forces appended items to disk
+     * @param target     forces the data of the store to disk
+     * @return the syncer
+     */
+    protected Syncer createSyncer(Durability durability, Syncer.Target target) {
+        return new Syncer(
+                durability,
+                params.getDurabilityIntervalEvents(),
+                params.getDurabilityIntervalMillis(),
+                target,
+                stats::recordSyncLatency
         );
     }
 
+    /**
+     * Creates the array tracking when the events of a store were handed to it, if readers tail the stores.
+     *
+     * @return the array or {@code null} if readers do not tail the stores
+     */
+    protected AtomicLongArray createPublishTimes() {
+        return !tailsStores() ? null : new AtomicLongArray((int) (params.getWritesPerThread() * getWritersPerStore()));
+    }
+
+    private boolean tailsStores() {
+        return params.getReaderThreadCnt() > 0 && params.getReaderMode() == ReaderMode.TAIL;
+    }
+
+    protected static AppendListener createAppendListener(AtomicLongArray publishTimes) {
+        return publishTimes == null ? null : (sequence, startNanos) -> publishTimes.set((int) sequence, startNanos);
+    }
+
     @Override
-    protected Runnable createReader(Object store, CompletableFuture<Stopwatch> future) {
+    protected Runnable createReader(Object store, CompletableFuture<WorkerStats> future) {
+        @SuppressWarnings("unchecked") Store<T> s = (Store<T>) store;
+        switch (params.getReaderMode()) {
+            case SCAN:
+                return createScanningReader(s, future);
+            case TAIL:
+                return createTailingReader(s, future);
+            case NODE_QUERY:
+                return createNodeQueryReader(generator.split(), nodeUrn -> scanNodeEvents(s, nodeUrn), future);
+            default:
+                throw new IllegalArgumentException(params.getReaderMode() + " readers are not supported by "
+                        + getClass().getSimpleName() + "!");
+        }
+    }
+
+    private Runnable createScanningReader(Store<T> store, CompletableFuture<WorkerStats> future) {
         return () -> {
 
-            @SuppressWarnings("unchecked") EventStore<T> eventStore = (EventStore<T>) store;
-            Stopwatch stopwatch = Stopwatch.createStarted();
+            EventStore<T> eventStore = store.eventStore;
+            WorkerStats workerStats = WorkerStats.createStarted();
 
             long readsPerThread = params.getReadsPerThread();
 
@@ -43,7 +358,13 @@ public class EventStoreRun<T> extends AbstractRun<T> {
                 try {
 
                     CloseableIterator<EventContainer<T>> iterator = eventStore.getAllEvents();
-                    while (read < readsPerThread && iterator.hasNext()) {
+                    while (read < readsPerThread) {
+                        long start = System.nanoTime();
+                        if (!iterator.hasNext()) {
+                            break;
+                        }
+                        iterator.next().getEvent();
+                        workerStats.recordLatency(System.nanoTime() - start);
                         read++;
                     }
                     iterator.close();
@@ -54,26 +375,142 @@ public class EventStoreRun<T> extends AbstractRun<T> {
                 }
             }
 
-            stopwatch.stop();
-            future.complete(stopwatch);
+            future.complete(workerStats.stop());
+        };
+    }
+
+    /**
+     * Creates a reader that retrieves all items of randomly chosen nodes. The nodes are those of items generated by
+     * {@code nodes}, so that they follow the distribution of nodes in the store (see {@link Params#getNodeCount()}).
+     * Choosing a node is not part of the recorded latencies, retrieving and deserializing all items of the node is.
+     *
+     * @param nodes  generates items whose nodes are queried
+     * @param query  retrieves all items of a node and returns their number
+     * @param future the future to be completed by the reader
+     * @return the reader
+     */
+    protected Runnable createNodeQueryReader(Generator<T> nodes, ToLongFunction<String> query,
+                                             CompletableFuture<WorkerStats> future) {
+
+        Function<T, String> nodeUrnFunction = generator.getNodeUrnFunction();
+
+        return () -> {
+
+            WorkerStats workerStats = WorkerStats.createStarted();
+
+            try {
+
+                for (long read = 0; read < params.getReadsPerThread(); read++) {
+                    String nodeUrn = nodeUrnFunction.apply(nodes.next());
+                    long start = System.nanoTime();
+                    long found = query.applyAsLong(nodeUrn);
+                    workerStats.recordLatency(System.nanoTime() - start);
+                    workerStats.addItemsFound(found);
+                }
+
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            future.complete(workerStats.stop());
+        };
+    }
+
+    private long scanNodeEvents(Store<T> store, String nodeUrn) {
+        Function<T, String> nodeUrnFunction = generator.getNodeUrnFunction();
+        long found = 0;
+        try (CloseableIterator<EventContainer<T>> iterator = store.eventStore.getAllEvents()) {
+            while (iterator.hasNext()) {
+                if (nodeUrn.equals(nodeUrnFunction.apply(iterator.next().getEvent()))) {
+                    found++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return found;
+    }
+
+    /**
+     * Creates a reader that follows the store while the writers append to it. Besides the latency of the read
+     * operation the reader records the latency from handing an event to the store until reading it.
+     */
+    private Runnable createTailingReader(Store<T> store, CompletableFuture<WorkerStats> future) {
+        return () -> {
+
+            AtomicLongArray published = store.publishTimes;
+            WorkerStats workerStats = WorkerStats.createStarted();
+            long readsPerThread = Math.min(params.getReadsPerThread(), published.length());
+
+            try (EventStoreTail<T> tail = new EventStoreTail<>(store.eventStore)) {
+
+                for (int read = 0; read < readsPerThread; read++) {
+
+                    long start = System.nanoTime();
+                    tail.next().getEvent();
+                    long seen = System.nanoTime();
+
+                    workerStats.recordLatency(seen - start);
+                    long publishTime = published.get(read);
+                    if (publishTime != 0) {
+                        workerStats.recordEndToEndLatency(seen - publishTime);
+                    }
+                }
+                workerStats.setOperations(readsPerThread);
+
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            future.complete(workerStats.stop());
         };
     }
 
     @Override
-    protected Runnable createWriter(Object store, CompletableFuture<Stopwatch> future) {
+    protected Runnable createWriter(Object store, Iterator<T> items, CompletableFuture<WorkerStats> future) {
+
+        @SuppressWarnings("unchecked") Appender<T> appender = createAppender((Store<T>) store);
+        int nodeCnt = params.getSimulatedNodes() / params.getWriterThreadCnt()
+                + (writerCnt++ < params.getSimulatedNodes() % params.getWriterThreadCnt() ? 1 : 0);
+
         return () -> {
 
-            @SuppressWarnings("unchecked") EventStore<T> eventStore = (EventStore<T>) store;
-            Stopwatch stopwatch = Stopwatch.createStarted();
+            WorkerStats workerStats = WorkerStats.createStarted();
 
             try {
 
-                for (long i = 0; i < params.getWritesPerThread(); i++) {
-                    eventStore.storeEvent(generator.next());
+                if (params.getSimulatedNodes() > 0) {
+
+                    writeSimulatedNodes(appender, items, workerStats, nodeCnt);
+
+                } else if (params.getBatchSize() > 1) {
+
+                    writeBatches(appender, items, workerStats);
+
+                } else if (params.getWriterTargetRate() > 0) {
+
+                    FixedRateSchedule schedule = FixedRateSchedule.startingNow(params.getWriterTargetRate());
+                    for (long i = 0; i < params.getWritesPerThread(); i++) {
+                        T item = items.next();
+                        long intendedStart = schedule.awaitIntendedStart(i);
+                        appender.append(item, intendedStart);
+                        workerStats.recordLatency(System.nanoTime() - intendedStart);
+                    }
+
+                } else {
+
+                    for (long i = 0; i < params.getWritesPerThread(); i++) {
+                        T item = items.next();
+                        long start = System.nanoTime();
+                        appender.append(item, start);
+                        workerStats.recordLatency(System.nanoTime() - start);
+                    }
                 }
 
-                stopwatch.stop();
-                future.complete(stopwatch);
+                appender.flush();
+                future.complete(workerStats.stop());
 
             } catch (IOException e) {
                 future.completeExceptionally(e);
@@ -82,14 +519,182 @@ public class EventStoreRun<T> extends AbstractRun<T> {
         };
     }
 
+    /**
+     * Writes the items on behalf of {@code nodeCnt} simulated sensor nodes, which take turns in writing one item each.
+     * Every node writes at {@link Params#getSimulatedNodeRate()} on its own schedule, shifted by a random phase, so
+     * that the items arrive like the events of independent nodes rather than at a fixed interval. The nodes are
+     * lightweight tasks ordered by their phase, so a thread carries thousands of them without a thread, a stack or any
+     * allocation per node. Latencies are measured from the intended start of every item, so items delayed by the store
+     * or by other nodes of the same thread account for the delay (see {@link FixedRateSchedule}).
+     */
+    private void writeSimulatedNodes(Appender<T> appender, Iterator<T> items, WorkerStats workerStats, int nodeCnt)
+            throws IOException {
+
+        double rate = params.getSimulatedNodeRate();
+        long intervalNanos = FixedRateSchedule.intervalNanos(rate);
+        SplittableRandom random = new SplittableRandom();
+
+        long[] phases = new long[nodeCnt];
+        for (int node = 0; node < nodeCnt; node++) {
+            phases[node] = random.nextLong(intervalNanos);
+        }
+        Arrays.sort(phases);
+
+        long start = System.nanoTime();
+        FixedRateSchedule[] nodes = new FixedRateSchedule[nodeCnt];
+        for (int node = 0; node < nodeCnt; node++) {
+            nodes[node] = FixedRateSchedule.startingAt(start + phases[node], rate);
+        }
+
+        for (long i = 0; i < params.getWritesPerThread(); i++) {
+            T item = items.next();
+            long intendedStart = nodes[(int) (i % nodeCnt)].awaitIntendedStart(i / nodeCnt);
+            appender.append(item, intendedStart);
+            workerStats.recordLatency(System.nanoTime() - intendedStart);
+        }
+    }
+
+    /**
+     * Writes the items in batches of {@link Params#getBatchSize()}. Every item of a batch is accounted with the latency
+     * of the whole batch. In open loop mode batches are scheduled so that the target rate of items is met.
+     */
+    private void writeBatches(Appender<T> appender, Iterator<T> items, WorkerStats workerStats) throws IOException {
+
+        int batchSize = params.getBatchSize();
+        long writesPerThread = params.getWritesPerThread();
+        Object[] batch = new Object[batchSize];
+
+        FixedRateSchedule schedule = params.getWriterTargetRate() > 0 ?
+                FixedRateSchedule.startingNow(params.getWriterTargetRate() / (double) batchSize) :
+                null;
+
+        long written = 0;
+        for (long i = 0; written < writesPerThread; i++) {
+
+            int length = (int) Math.min(batchSize, writesPerThread - written);
+            for (int j = 0; j < length; j++) {
+                batch[j] = items.next();
+            }
+
+            long start = schedule == null ? System.nanoTime() : schedule.awaitIntendedStart(i);
+            appender.appendBatch(batch, length, start);
+            long latency = System.nanoTime() - start;
+
+            workerStats.recordLatency(latency, length);
+            workerStats.recordBatchLatency(latency);
+            written += length;
+        }
+    }
+
+    /**
+     * Creates the appender a writer thread uses to append items to {@code store}.
+     *
+     * @param store the store to append to
+     * @return the appender
+     */
+    protected Appender<T> createAppender(Store<T> store) {
+
+        if (store.combiningStore != null) {
+
+            CombiningEventStore<T>.Producer producer = store.combiningStore.newProducer();
+            return new Appender<T>() {
+
+                @Override
+                public void append(T item, long startNanos) throws IOException {
+                    producer.storeEvent(item, startNanos);
+                    store.syncer.appended(1);
+                }
+
+                @Override
+                public void appendBatch(Object[] batch, int length, long startNanos) {
+                    // rejected by the constructor
+                    throw new IllegalStateException("Batches can not be combined, use " + StoreSharing.SHARED
+                            + " instead!");
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    store.syncer.flush();
+                }
+            };
+        }
+
+        EventStore<T> eventStore = store.eventStore;
+        BatchingEventStore<T> batchingStore = new BatchingEventStore<>(eventStore);
+        AtomicLongArray published = store.publishTimes;
+        Syncer syncer = store.syncer;
+        // shared stores are appended to under one lock, the baseline for combining
+        boolean locked = published != null || getWritersPerStore() > 1;
+
+        return new Appender<T>() {
+
+            @Override
+            public void append(T item, long startNanos) throws IOException {
+                if (!locked) {
+                    eventStore.storeEvent(item);
+                } else {
+                    synchronized (eventStore) {
+                        if (published != null) {
+                            published.set((int) store.sequence++, startNanos);
+                        }
+                        eventStore.storeEvent(item);
+                    }
+                }
+                syncer.appended(1);
+            }
+
+            @Override
+            public void appendBatch(Object[] batch, int length, long startNanos) throws IOException {
+                if (!locked) {
+                    batchingStore.storeEvents(batch, length);
+                } else {
+                    synchronized (eventStore) {
+                        if (published != null) {
+                            for (int j = 0; j < length; j++) {
+                                published.set((int) store.sequence++, startNanos);
+                            }
+                        }
+                        batchingStore.storeEvents(batch, length);
+                    }
+                }
+                syncer.appended(length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                syncer.flush();
+            }
+        };
+    }
+
     public static <T> EventStore<T> createEventStore(Class<? extends T> clazz,
                                                      Function<? extends T, byte[]> serializer,
                                                      Function<byte[], ? extends T> deserializer) {
-        try {
+        return createEventStore(createStoreDirectory(), clazz, serializer, deserializer);
+    }
 
+    /**
+     * Creates a temporary directory for a store that is deleted on exit.
+     *
+     * @return the directory
+     */
+    public static Path createStoreDirectory() {
+        try {
             Path dir = Files.createTempDirectory("EventStoreEvaluation");
+            ChronicleTools.deleteOnExit(dir.toAbsolutePath().toString());
+            return dir;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static <T> EventStore<T> createEventStore(Path dir,
+                                                     Class<? extends T> clazz,
+                                                     Function<? extends T, byte[]> serializer,
+                                                     Function<byte[], ? extends T> deserializer) {
+        try {
+
             String basePath = dir.toAbsolutePath().toString();
-            ChronicleTools.deleteOnExit(basePath);
 
             //noinspection unchecked
             return EventStoreFactory.<T>create()
@@ -0,0 +1,112 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import de.uniluebeck.itm.eventstore.CloseableIterator;
+import de.uniluebeck.itm.eventstore.EventContainer;
+import de.uniluebeck.itm.eventstore.EventStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Iterators.advance;
+
+/**
+ * Follows an {@link EventStore} while it is being written to: {@link #next()} returns the events in the order they
+ * were appended and blocks until the next one is available. Waiting starts with spinning, then yields and finally parks
+ * the calling thread for short periods.
+ * <p/>
+ * The tail first polls the open iterator of the store again. If that does not make progress within
+ * {@link #REOPEN_AFTER_NS} it reopens the iterator and skips the events that were already consumed, so it also works
+ * with iterators that do not follow appends made after they were opened.
+ *
+ * @param <T> the type of events in the store
+ */
+public class EventStoreTail<T> implements Closeable {
+
+    private static final int SPINS = 100;
+
+    private static final int YIELDS = 100;
+
+    private static final long PARK_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final long REOPEN_AFTER_NS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final EventStore<T> eventStore;
+
+    private CloseableIterator<EventContainer<T>> iterator;
+
+    private long consumed;
+
+    public EventStoreTail(EventStore<T> eventStore) throws IOException {
+        this.eventStore = checkNotNull(eventStore);
+        this.iterator = eventStore.getAllEvents();
+    }
+
+    /**
+     * Returns the next event of the store, blocking until it is available.
+     *
+     * @return the next event
+     * @throws IOException          if reading from the store fails
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public EventContainer<T> next() throws IOException, InterruptedException {
+
+        int idle = 0;
+        long waitingSince = 0;
+
+        while (!iterator.hasNext()) {
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (idle < SPINS) {
+                idle++;
+            } else if (idle < SPINS + YIELDS) {
+                idle++;
+                Thread.yield();
+            } else {
+                long now = System.nanoTime();
+                if (waitingSince == 0) {
+                    waitingSince = now;
+                } else if (now - waitingSince > REOPEN_AFTER_NS) {
+                    reopen();
+                    waitingSince = now;
+                    continue;
+                }
+                LockSupport.parkNanos(PARK_NS);
+            }
+        }
+
+        consumed++;
+        return iterator.next();
+    }
+
+    /**
+     * Returns the number of events returned by this tail so far.
+     *
+     * @return the number of consumed events
+     */
+    public long getConsumed() {
+        return consumed;
+    }
+
+    private void reopen() throws IOException {
+        iterator.close();
+        iterator = eventStore.getAllEvents();
+        for (long skipped = 0; skipped < consumed; ) {
+            int step = advance(iterator, (int) Math.min(Integer.MAX_VALUE, consumed - skipped));
+            if (step == 0) {
+                break;
+            }
+            skipped += step;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        iterator.close();
+    }
+}
@@ -0,0 +1,89 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Schedule for open-loop workloads: the {@code i}-th operation is intended to start at {@code start + i * interval},
+ * regardless of how long previous operations took. Measuring latency from the intended instead of the actual start
+ * time avoids coordinated omission, i.e., stalls of the system under test are accounted for every operation that
+ * should have been issued during the stall instead of only the one that was stalled.
+ */
+public class FixedRateSchedule {
+
+    /**
+     * Waiting times below this threshold are spent spinning instead of parking to not miss the intended start.
+     */
+    private static final long SPIN_THRESHOLD_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final long intervalNanos;
+
+    private final long startNanos;
+
+    private FixedRateSchedule(long intervalNanos, long startNanos) {
+        this.intervalNanos = intervalNanos;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Creates a schedule starting now.
+     *
+     * @param opsPerSecond the number of operations to be issued per second
+     * @return the schedule
+     */
+    public static FixedRateSchedule startingNow(double opsPerSecond) {
+        return startingAt(System.nanoTime(), opsPerSecond);
+    }
+
+    /**
+     * Creates a schedule starting at the given time.
+     *
+     * @param startNanos   the intended start time of the first operation in {@link System#nanoTime()} units
+     * @param opsPerSecond the number of operations to be issued per second
+     * @return the schedule
+     */
+    public static FixedRateSchedule startingAt(long startNanos, double opsPerSecond) {
+        return new FixedRateSchedule(intervalNanos(opsPerSecond), startNanos);
+    }
+
+    /**
+     * Returns the time between the intended starts of two operations.
+     *
+     * @param opsPerSecond the number of operations to be issued per second
+     * @return the interval in nanoseconds, at least 1
+     */
+    public static long intervalNanos(double opsPerSecond) {
+        if (opsPerSecond <= 0) {
+            throw new IllegalArgumentException("opsPerSecond must be > 0");
+        }
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / opsPerSecond));
+    }
+
+    /**
+     * Returns the intended start time of the {@code i}-th operation.
+     *
+     * @param i the number of the operation, starting at zero
+     * @return the intended start time in {@link System#nanoTime()} units
+     */
+    public long intendedStart(long i) {
+        return startNanos + i * intervalNanos;
+    }
+
+    /**
+     * Blocks until the intended start time of the {@code i}-th operation is reached. Returns immediately if the
+     * schedule is behind.
+     *
+     * @param i the number of the operation, starting at zero
+     * @return the intended start time in {@link System#nanoTime()} units
+     */
+    public long awaitIntendedStart(long i) {
+        long intended = intendedStart(i);
+        long remaining;
+        while ((remaining = intended - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NS);
+            }
+        }
+        return intended;
+    }
+}
@@ -0,0 +1,70 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Number of garbage collection pauses and their accumulated time over all collectors of this JVM, as reported by their
+ * {@link GarbageCollectorMXBean}s. Collectors that report concurrent cycles rather than pauses (e.g., "G1 Concurrent
+ * GC", "ConcurrentMarkSweep", "ZGC Cycles" or "Shenandoah Cycles") are left out, as their time mostly overlaps with
+ * the application running.
+ */
+public class GarbageCollectionStats {
+
+    public static final GarbageCollectionStats NONE = new GarbageCollectionStats(0, 0);
+
+    private final long count;
+
+    private final long timeMillis;
+
+    private GarbageCollectionStats(long count, long timeMillis) {
+        this.count = count;
+        this.timeMillis = timeMillis;
+    }
+
+    /**
+     * Returns the totals since the JVM has been started.
+     *
+     * @return the current totals
+     */
+    public static GarbageCollectionStats snapshot() {
+        long count = 0;
+        long timeMillis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (isConcurrent(bean)) {
+                continue;
+            }
+            count += Math.max(0, bean.getCollectionCount());
+            timeMillis += Math.max(0, bean.getCollectionTime());
+        }
+        return new GarbageCollectionStats(count, timeMillis);
+    }
+
+    private static boolean isConcurrent(GarbageCollectorMXBean bean) {
+        String name = bean.getName();
+        return name.contains("Concurrent") || name.endsWith("Cycles");
+    }
+
+    /**
+     * Returns the collections that happened between {@code earlier} and this snapshot.
+     *
+     * @param earlier an earlier snapshot
+     * @return the difference
+     */
+    public GarbageCollectionStats since(GarbageCollectionStats earlier) {
+        return new GarbageCollectionStats(count - earlier.count, timeMillis - earlier.timeMillis);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "GarbageCollectionStats{" + "count=" + count + ", timeMillis=" + timeMillis + '}';
+    }
+}
@@ -3,13 +3,59 @@ package de.uniluebeck.itm.tr.eventstore.eval;
 import com.google.common.base.Function;
 
 import java.util.Iterator;
+import java.util.function.ToLongFunction;
 
 public interface Generator<T> extends Iterator<T> {
 
     Class<T> getGeneratedClass();
 
+    /**
+     * Returns a new generator of the same configuration with its own, independent source of randomness. Generators
+     * are not thread-safe, every thread must use its own instance. {@code split()} itself must be called by the
+     * thread owning this generator.
+     *
+     * @return the new generator
+     */
+    Generator<T> split();
+
     Function<byte[], T> getDeserializer();
 
     Function<T, byte[]> getSerializer();
 
+    /**
+     * Returns a serializer that writes items into and reads them from caller-supplied buffers without allocating
+     * intermediate byte arrays. Its binary format may differ from the one of {@link #getSerializer()}.
+     *
+     * @return the buffer serializer
+     */
+    BufferSerializer<T> getBufferSerializer();
+
+    /**
+     * Returns a function extracting the unique ID of an item, used as the key of ID indexes.
+     *
+     * @return the function or {@code null} if items don't carry IDs
+     */
+    default ToLongFunction<T> getIdFunction() {
+        return null;
+    }
+
+    /**
+     * Returns a function extracting the URN of the node an item originates from, used as the key of node indexes and
+     * node queries.
+     *
+     * @return the function or {@code null} if items don't originate from nodes
+     */
+    default Function<T, String> getNodeUrnFunction() {
+        return null;
+    }
+
+    /**
+     * Returns a function extracting the timestamp of an item, used as the key of time indexes and range queries.
+     *
+     * @return the function or {@code null} if items don't carry timestamps
+     */
+    default ToLongFunction<T> getTimestampFunction() {
+        return null;
+    }
+
 }
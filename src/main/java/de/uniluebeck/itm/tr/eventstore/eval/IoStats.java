@@ -0,0 +1,119 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * I/O counters of this process as reported by Linux in {@code /proc/self/io}. The character counts include everything
+ * passed to read and write system calls, also if it was served by or ends up in the page cache only. The byte counts
+ * are what the process caused to be fetched from or sent to the storage layer. Pages written through memory-mapped
+ * files (like the ones of Chronicle) show up in the latter only and only once they are written back, which may happen
+ * after a run unless the run forces them to disk. On systems without {@code /proc/self/io} all counters are 0.
+ */
+public class IoStats {
+
+    public static final IoStats NONE = new IoStats(0, 0, 0, 0);
+
+    private static final Path PROC_SELF_IO = Paths.get("/proc/self/io");
+
+    private final long readChars;
+
+    private final long writtenChars;
+
+    private final long readBytes;
+
+    private final long writtenBytes;
+
+    private IoStats(long readChars, long writtenChars, long readBytes, long writtenBytes) {
+        this.readChars = readChars;
+        this.writtenChars = writtenChars;
+        this.readBytes = readBytes;
+        this.writtenBytes = writtenBytes;
+    }
+
+    /**
+     * Returns the totals since the process has been started.
+     *
+     * @return the current totals, {@link #NONE} if they are not available
+     */
+    public static IoStats snapshot() {
+        if (!Files.isReadable(PROC_SELF_IO)) {
+            return NONE;
+        }
+        long readChars = 0;
+        long writtenChars = 0;
+        long readBytes = 0;
+        long writtenBytes = 0;
+        try {
+            for (String line : Files.readAllLines(PROC_SELF_IO, StandardCharsets.US_ASCII)) {
+                int colon = line.indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                long value = Long.parseLong(line.substring(colon + 1).trim());
+                switch (line.substring(0, colon)) {
+                    case "rchar":
+                        readChars = value;
+                        break;
+                    case "wchar":
+                        writtenChars = value;
+                        break;
+                    case "read_bytes":
+                        readBytes = value;
+                        break;
+                    case "write_bytes":
+                        writtenBytes = value;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return NONE;
+        }
+        return new IoStats(readChars, writtenChars, readBytes, writtenBytes);
+    }
+
+    /**
+     * Returns the I/O that happened between {@code earlier} and this snapshot.
+     *
+     * @param earlier an earlier snapshot
+     * @return the difference, {@link #NONE} if one of the snapshots is not available
+     */
+    public IoStats since(IoStats earlier) {
+        if (this == NONE || earlier == NONE) {
+            return NONE;
+        }
+        return new IoStats(
+                readChars - earlier.readChars,
+                writtenChars - earlier.writtenChars,
+                readBytes - earlier.readBytes,
+                writtenBytes - earlier.writtenBytes
+        );
+    }
+
+    public long getReadChars() {
+        return readChars;
+    }
+
+    public long getWrittenChars() {
+        return writtenChars;
+    }
+
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "IoStats{" + "readChars=" + readChars + ", writtenChars=" + writtenChars + ", readBytes=" + readBytes
+                + ", writtenBytes=" + writtenBytes + '}';
+    }
+}
@@ -1,15 +1,15 @@
 package de.uniluebeck.itm.tr.eventstore.eval;
 
-import com.google.common.base.Stopwatch;
 import de.uniluebeck.itm.util.scheduler.SchedulerService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
 
 public class Log4j2Run<T> extends AbstractRun<T> {
 
-    public Log4j2Run(int runNr, SchedulerService executor, Generator<T> generator, Params params) {
+    public Log4j2Run(int runNr, SchedulerService executor, Params params, Generator<T> generator) {
         super(runNr, executor, params, generator);
     }
 
@@ -24,23 +24,25 @@ public class Log4j2Run<T> extends AbstractRun<T> {
     }
 
     @Override
-    protected Runnable createReader(Object store, CompletableFuture<Stopwatch> future) {
-        throw new RuntimeException("Log4j2 storage does not provide writing capabilities!");
+    protected Runnable createReader(Object store, CompletableFuture<WorkerStats> future) {
+        throw new RuntimeException("Readers are not supported for Log4j2 based stores!");
     }
 
     @Override
-    protected Runnable createWriter(Object store, CompletableFuture<Stopwatch> future) {
+    protected Runnable createWriter(Object store, Iterator<T> items, CompletableFuture<WorkerStats> future) {
         return () -> {
 
             Logger logger = (Logger) store;
-            Stopwatch stopwatch = Stopwatch.createStarted();
+            WorkerStats workerStats = WorkerStats.createStarted();
 
             for (int i = 0; i < params.getWritesPerThread(); i++) {
-                logger.info("{}", generator.next());
+                T item = items.next();
+                long start = System.nanoTime();
+                logger.info("{}", item);
+                workerStats.recordLatency(System.nanoTime() - start);
             }
 
-            stopwatch.stop();
-            future.complete(stopwatch);
+            future.complete(workerStats.stop());
         };
     }
 }
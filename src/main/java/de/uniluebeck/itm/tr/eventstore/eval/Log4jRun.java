@@ -1,17 +1,44 @@
 package de.uniluebeck.itm.tr.eventstore.eval;
 
-import com.google.common.base.Stopwatch;
 import de.uniluebeck.itm.util.scheduler.SchedulerService;
+import org.apache.log4j.Appender;
 import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
 import org.apache.log4j.PatternLayout;
 import org.apache.log4j.RollingFileAppender;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
 
 public class Log4jRun<T> extends AbstractRun<T> {
 
+    /**
+     * A logger writing to its own file only, which is detached and closed when the store is closed.
+     */
+    private static class Log4jStore implements Closeable {
+
+        final Logger logger;
+
+        final Appender appender;
+
+        Log4jStore(Logger logger, Appender appender) {
+            this.logger = logger;
+            this.appender = appender;
+        }
+
+        @Override
+        public void close() {
+            logger.removeAppender(appender);
+            appender.close();
+        }
+    }
+
+    private int storeCnt;
+
     public Log4jRun(int runNr, SchedulerService executor, Params params, Generator<T> generator) {
         super(runNr, executor, params, generator);
     }
@@ -21,33 +48,38 @@ public class Log4jRun<T> extends AbstractRun<T> {
         try {
             File tempFile = File.createTempFile("log4j-run-" + runNr, "");
             tempFile.deleteOnExit();
+            storeFiles.add(tempFile.toPath());
             RollingFileAppender appender = new RollingFileAppender(new PatternLayout(), tempFile.getAbsolutePath());
-            org.apache.log4j.Logger.getRootLogger().addAppender(appender);
-            org.apache.log4j.Logger.getRootLogger().setLevel(Level.INFO);
-            return org.apache.log4j.LogManager.getLogger("log4j-run-" + runNr);
+            Logger logger = LogManager.getLogger("log4j-run-" + runNr + "-store-" + ++storeCnt);
+            logger.setAdditivity(false);
+            logger.setLevel(Level.INFO);
+            logger.addAppender(appender);
+            return new Log4jStore(logger, appender);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     @Override
-    protected Runnable createReader(Object store, CompletableFuture<Stopwatch> future) {
+    protected Runnable createReader(Object store, CompletableFuture<WorkerStats> future) {
         throw new RuntimeException("Readers are not supported for Log4j based stores!");
     }
 
     @Override
-    protected Runnable createWriter(Object store, CompletableFuture<Stopwatch> future) {
+    protected Runnable createWriter(Object store, Iterator<T> items, CompletableFuture<WorkerStats> future) {
         return () -> {
 
-            java.util.logging.Logger log = (java.util.logging.Logger) store;
-            Stopwatch stopwatch = Stopwatch.createStarted();
+            Logger log = ((Log4jStore) store).logger;
+            WorkerStats workerStats = WorkerStats.createStarted();
 
             for (int i = 0; i < params.getWritesPerThread(); i++) {
-                log.info((String) generator.next());
+                T item = items.next();
+                long start = System.nanoTime();
+                log.info(item);
+                workerStats.recordLatency(System.nanoTime() - start);
             }
 
-            stopwatch.stop();
-            future.complete(stopwatch);
+            future.complete(workerStats.stop());
         };
     }
 
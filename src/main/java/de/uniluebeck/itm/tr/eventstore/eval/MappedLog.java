@@ -0,0 +1,628 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.base.Function;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A minimal append-only log of length-prefixed records in pre-sized memory-mapped segment files. It does nothing but
+ * copying serialized items into mapped memory and is meant as a lower bound for the cost of persisting items.
+ * <p>
+ * Every record consists of its length as a 4 byte int followed by the serialized item. A length of -1 (or less than
+ * 4 remaining bytes) marks the end of a segment, appending continues in the next segment. Appends are serialized by the
+ * monitor of the log. They become visible to {@link Cursor}s by incrementing a volatile record count, so readers never
+ * see partially written records.
+ * <p>
+ * Every segment starts with a header holding the number of records in all previous segments (8 bytes), the number of
+ * records in the segment (4 bytes) and the end of its last record (4 bytes), which are updated on every append. An
+ * existing log is therefore reopened by reading the header of its last segment only, without scanning any records.
+ * The other segments are mapped when a cursor reaches them, so opening takes the same time regardless of the size of
+ * the log.
+ * <p>
+ * Optionally, the log maintains a primary index from the IDs of items to the positions of their records in an
+ * {@link OffHeapLongLongMap}, which allows looking up records with {@link #get(long)}, and a secondary index from the
+ * node URNs of items to the positions of all their records in a {@link PostingIndex}, which allows retrieving the
+ * records of a node with {@link #getByNodeUrn(String)}, and the minimum and maximum timestamps of items per segment
+ * and block of records in a {@link TimeIndex}, which allows retrieving the records of a time range with
+ * {@link #getBetween(long, long)} without reading the segments and blocks outside of the range. All indexes are
+ * updated on every append. They are not persisted but rebuilt by reading all records on the first query after a log
+ * was reopened, which also allocates the off-heap memory of the ID index then, so that opening still takes the same
+ * time regardless of the size of the log. Appends wait for the rebuild.
+ *
+ * @param <T> the type of items
+ */
+public class MappedLog<T> implements Closeable {
+
+    private static final int LENGTH_PREFIX = 4;
+
+    private static final int END_OF_SEGMENT = -1;
+
+    private static final int BASE_OFFSET = 0;
+
+    private static final int COUNT_OFFSET = 8;
+
+    private static final int END_OFFSET = 12;
+
+    private static final int HEADER = 16;
+
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+
+    private final Path dir;
+
+    private final int segmentSize;
+
+    private final BufferSerializer<T> serializer;
+
+    private final AppendListener listener;
+
+    private final boolean temporary;
+
+    private final ToLongFunction<T> idFunction;
+
+    /**
+     * Maps IDs to record positions, the index of the segment in the upper and the offset of the record in the lower 32
+     * bits. {@code null} if the log has no ID index or a reopened log hasn't rebuilt it yet, which allocates it for
+     * the number of records then. Only set while holding the monitor of this log, before {@link #indexed}.
+     */
+    private OffHeapLongLongMap idIndex;
+
+    private final Function<T, String> nodeUrnFunction;
+
+    /**
+     * Maps node URNs to the positions of their records, {@code null} if the log has no node index.
+     */
+    private final PostingIndex nodeIndex;
+
+    private final ToLongFunction<T> timestampFunction;
+
+    /**
+     * The timestamps of the records per segment and block, {@code null} if the log has no time index.
+     */
+    private final TimeIndex timeIndex;
+
+    /**
+     * Whether the indexes hold all appended records, {@code false} until the indexes of a reopened log were rebuilt.
+     * Only set while holding the monitor of this log.
+     */
+    private volatile boolean indexed;
+
+    /**
+     * The mapped segments, {@code null} for segments of a reopened log that haven't been read yet.
+     */
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+
+    /**
+     * The segment appended to, guarded by the monitor of this log.
+     */
+    private MappedByteBuffer current;
+
+    /**
+     * The number of records written, guarded by the monitor of this log.
+     */
+    private long appended;
+
+    /**
+     * The number of records readers may read.
+     */
+    private volatile long committed;
+
+    /**
+     * The index of the first segment that may contain data not yet forced to disk.
+     */
+    private int firstUnforcedSegment;
+
+    /**
+     * Opens the log in {@code dir}, creating an empty log if {@code dir} doesn't contain any segments.
+     *
+     * @param dir         the directory for the segment files
+     * @param segmentSize the size of each segment file in bytes
+     * @param serializer  the serializer writing items into and reading them from mapped memory
+     * @param listener    notified for every appended record before it becomes visible to readers, may be
+     *                    {@code null}
+     * @param temporary   whether the segment files are deleted when the log is closed or the JVM exits
+     * @param idFunction      extracts the unique IDs of items to be indexed, {@code null} for a log without ID index
+     * @param nodeUrnFunction extracts the node URNs of items to be indexed, {@code null} for a log without node index
+     * @param timestampFunction extracts the timestamps of items to be indexed, {@code null} for a log without time
+     *                          index
+     * @throws IOException if the last segment can't be mapped or the first segment can't be created
+     */
+    public MappedLog(Path dir, int segmentSize, BufferSerializer<T> serializer, AppendListener listener,
+                     boolean temporary, ToLongFunction<T> idFunction, Function<T, String> nodeUrnFunction,
+                     ToLongFunction<T> timestampFunction) throws IOException {
+
+        if (segmentSize <= HEADER + 2 * LENGTH_PREFIX) {
+            throw new IllegalArgumentException("Segments must be larger than " + (HEADER + 2 * LENGTH_PREFIX)
+                    + " bytes!");
+        }
+
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.serializer = serializer;
+        this.listener = listener;
+        this.temporary = temporary;
+        this.idFunction = idFunction;
+        this.nodeUrnFunction = nodeUrnFunction;
+        this.timestampFunction = timestampFunction;
+
+        int segmentCnt = countSegmentFiles();
+        if (segmentCnt == 0) {
+            this.current = mapNextSegment();
+        } else {
+            for (int i = 0; i < segmentCnt - 1; i++) {
+                segments.add(null);
+            }
+            this.current = mapSegment(segmentCnt - 1, FileChannel.MapMode.READ_WRITE);
+            segments.add(current);
+            this.appended = current.getLong(BASE_OFFSET) + current.getInt(COUNT_OFFSET);
+            this.committed = appended;
+            this.firstUnforcedSegment = segmentCnt - 1;
+            current.position(current.getInt(END_OFFSET));
+        }
+
+        this.nodeIndex = nodeUrnFunction == null ? null : new PostingIndex();
+        this.timeIndex = timestampFunction == null ? null : new TimeIndex();
+        if (idFunction != null && appended == 0) {
+            this.idIndex = new OffHeapLongLongMap(0);
+        }
+        this.indexed = appended == 0 || (idFunction == null && nodeIndex == null && timeIndex == null);
+    }
+
+    /**
+     * Rebuilds the indexes of a reopened log from all records appended so far unless that has been done already.
+     */
+    private void awaitIndexes() {
+        if (!indexed) {
+            synchronized (this) {
+                if (!indexed) {
+                    rebuildIndexes();
+                    indexed = true;
+                }
+            }
+        }
+    }
+
+    private void rebuildIndexes() {
+        if (idFunction != null) {
+            idIndex = new OffHeapLongLongMap(appended);
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            ByteBuffer view = segment(i).duplicate();
+            int count = view.getInt(COUNT_OFFSET);
+            for (int r = 0, start = HEADER; r < count; r++) {
+                int end = start + LENGTH_PREFIX + view.getInt(start);
+                view.limit(end).position(start + LENGTH_PREFIX);
+                index(serializer.deserialize(view), toPosition(i, start));
+                view.limit(view.capacity());
+                start = end;
+            }
+        }
+    }
+
+    private void index(T item, long position) {
+        if (idIndex != null) {
+            idIndex.put(idFunction.applyAsLong(item), position);
+        }
+        if (nodeIndex != null) {
+            nodeIndex.add(nodeUrnFunction.apply(item), position);
+        }
+        if (timeIndex != null) {
+            timeIndex.add((int) (position >>> 32), (int) position, timestampFunction.applyAsLong(item));
+        }
+    }
+
+    private static long toPosition(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    private int countSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return (int) files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_FILE_PREFIX)).count();
+        }
+    }
+
+    public synchronized void append(T item, long startNanos) throws IOException {
+        write(item);
+        if (listener != null) {
+            listener.appended(committed, startNanos);
+        }
+        committed++;
+    }
+
+    /**
+     * Appends the first {@code length} items of {@code batch}, which become visible to readers at once.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void appendBatch(Object[] batch, int length, long startNanos) throws IOException {
+        for (int i = 0; i < length; i++) {
+            write((T) batch[i]);
+            if (listener != null) {
+                listener.appended(committed + i, startNanos);
+            }
+        }
+        committed += length;
+    }
+
+    private void write(T item) throws IOException {
+        while (true) {
+            int start = current.position();
+            if (current.remaining() > LENGTH_PREFIX) {
+                try {
+                    current.position(start + LENGTH_PREFIX);
+                    serializer.serialize(item, current);
+                    current.putInt(start, current.position() - start - LENGTH_PREFIX);
+                    current.putInt(COUNT_OFFSET, current.getInt(COUNT_OFFSET) + 1);
+                    current.putInt(END_OFFSET, current.position());
+                    if (indexed) {
+                        index(item, toPosition(segments.size() - 1, start));
+                    }
+                    appended++;
+                    return;
+                } catch (BufferOverflowException e) {
+                    if (start == HEADER) {
+                        throw new IllegalArgumentException("Item does not fit into a segment of " + segmentSize
+                                + " bytes!");
+                    }
+                }
+            }
+            if (segmentSize - start >= LENGTH_PREFIX) {
+                current.putInt(start, END_OF_SEGMENT);
+            }
+            current = mapNextSegment();
+        }
+    }
+
+    private MappedByteBuffer mapNextSegment() throws IOException {
+        Path file = segmentFile(segments.size());
+        if (temporary) {
+            file.toFile().deleteOnExit();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segment.putLong(BASE_OFFSET, appended);
+            segment.putInt(COUNT_OFFSET, 0);
+            segment.putInt(END_OFFSET, HEADER);
+            segment.position(HEADER);
+            segments.add(segment);
+            return segment;
+        }
+    }
+
+    private MappedByteBuffer mapSegment(int index, FileChannel.MapMode mode) throws IOException {
+        Path file = segmentFile(index);
+        if (Files.size(file) != segmentSize) {
+            throw new IllegalArgumentException("Segment " + file + " is not of size " + segmentSize + "!");
+        }
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY ?
+                new StandardOpenOption[]{StandardOpenOption.READ} :
+                new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, segmentSize);
+        }
+    }
+
+    /**
+     * Returns the segment at {@code index}, mapping it if it is a segment of a reopened log that hasn't been read yet.
+     */
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            synchronized (segments) {
+                segment = segments.get(index);
+                if (segment == null) {
+                    try {
+                        // segments before the last one of a reopened log are complete and never written to
+                        segment = mapSegment(index, FileChannel.MapMode.READ_ONLY);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    segments.set(index, segment);
+                }
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Forces the segments written to since the last call to disk. Not thread-safe, callers must not force concurrently.
+     */
+    public void force() {
+        int last = segments.size() - 1;
+        for (int i = firstUnforcedSegment; i <= last; i++) {
+            segments.get(i).force();
+        }
+        firstUnforcedSegment = last;
+    }
+
+    /**
+     * Returns the number of records readers may read.
+     *
+     * @return the number of committed records
+     */
+    public long size() {
+        return committed;
+    }
+
+    /**
+     * Returns the item with the given ID. Items of a batch may be found before cursors see them.
+     *
+     * @param id the ID of the item
+     * @return the item or {@code null} if no item with this ID has been appended
+     * @throws IllegalStateException if the log has no ID index
+     */
+    public T get(long id) {
+        long position = getIdIndex().get(id);
+        return position == OffHeapLongLongMap.ABSENT ? null : read(position);
+    }
+
+    private T read(long position) {
+        ByteBuffer view = segment((int) (position >>> 32)).duplicate();
+        int start = (int) position;
+        view.limit(start + LENGTH_PREFIX + view.getInt(start)).position(start + LENGTH_PREFIX);
+        return serializer.deserialize(view);
+    }
+
+    /**
+     * Returns the items of a node in the order they were appended, reading only the records of the node.
+     *
+     * @param nodeUrn the node URN
+     * @return the items of the node, empty if there are none
+     * @throws IllegalStateException if the log has no node index
+     */
+    public Iterator<T> getByNodeUrn(String nodeUrn) {
+        if (nodeIndex == null) {
+            throw new IllegalStateException("The log has no node index!");
+        }
+        awaitIndexes();
+        PrimitiveIterator.OfLong positions = nodeIndex.get(nodeUrn);
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                return positions.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return read(positions.nextLong());
+            }
+        };
+    }
+
+    /**
+     * Returns the items with timestamps between {@code from} and {@code to} (both inclusive) in the order they were
+     * appended, reading only the blocks of records whose timestamps overlap the range. Items of a batch may be found
+     * before cursors see them.
+     *
+     * @param from the smallest timestamp of the range
+     * @param to   the largest timestamp of the range
+     * @return the items of the range, empty if there are none
+     * @throws IllegalStateException if the log has no time index
+     */
+    public Iterator<T> getBetween(long from, long to) {
+        TimeIndex.BlockCursor blocks = getTimeIndex().blocks(from, to);
+        return new Iterator<T>() {
+
+            private int segment = -1;
+
+            private ByteBuffer view;
+
+            private int position;
+
+            private int remaining;
+
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (remaining == 0) {
+                        if (!blocks.next()) {
+                            return false;
+                        }
+                        if (blocks.getSegment() != segment) {
+                            segment = blocks.getSegment();
+                            view = segment(segment).duplicate();
+                        }
+                        position = blocks.getOffset();
+                        remaining = blocks.getRecordCnt();
+                    }
+                    int end = position + LENGTH_PREFIX + view.getInt(position);
+                    view.limit(end).position(position + LENGTH_PREFIX);
+                    T item = serializer.deserialize(view);
+                    view.limit(view.capacity());
+                    position = end;
+                    remaining--;
+                    long timestamp = timestampFunction.applyAsLong(item);
+                    if (timestamp >= from && timestamp <= to) {
+                        next = item;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T item = next;
+                next = null;
+                return item;
+            }
+        };
+    }
+
+    /**
+     * Returns the smallest timestamp of all items.
+     *
+     * @return the smallest timestamp, {@link Long#MAX_VALUE} if the log is empty
+     * @throws IllegalStateException if the log has no time index
+     */
+    public long getMinTimestamp() {
+        return getTimeIndex().getMin();
+    }
+
+    /**
+     * Returns the largest timestamp of all items.
+     *
+     * @return the largest timestamp, {@link Long#MIN_VALUE} if the log is empty
+     * @throws IllegalStateException if the log has no time index
+     */
+    public long getMaxTimestamp() {
+        return getTimeIndex().getMax();
+    }
+
+    private TimeIndex getTimeIndex() {
+        if (timeIndex == null) {
+            throw new IllegalStateException("The log has no time index!");
+        }
+        awaitIndexes();
+        return timeIndex;
+    }
+
+    /**
+     * Returns the bytes of the segment files holding headers and records, i.e., without the unused space at the end of
+     * every segment. Maps the segments of a reopened log that haven't been read yet.
+     *
+     * @return the used bytes
+     */
+    public long getUsedBytes() {
+        long used = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            used += segment(i).getInt(END_OFFSET);
+        }
+        return used;
+    }
+
+    /**
+     * Returns the approximate memory footprint of the ID, node and time indexes. Rebuilds the indexes of a reopened
+     * log if no query did yet.
+     *
+     * @return the size in bytes, 0 if the log has no indexes
+     */
+    public long getIndexBytes() {
+        awaitIndexes();
+        return (idIndex == null ? 0 : idIndex.sizeInBytes()) + (nodeIndex == null ? 0 : nodeIndex.sizeInBytes())
+                + (timeIndex == null ? 0 : timeIndex.sizeInBytes());
+    }
+
+    /**
+     * Returns the ID of a randomly chosen item, e.g., for benchmarking {@link #get(long)}.
+     *
+     * @param random the source of randomness
+     * @return the ID of an appended item
+     * @throws IllegalStateException if the log has no ID index or is empty
+     */
+    public long randomId(SplittableRandom random) {
+        return getIdIndex().randomKey(random);
+    }
+
+    private OffHeapLongLongMap getIdIndex() {
+        if (idFunction == null) {
+            throw new IllegalStateException("The log has no ID index!");
+        }
+        awaitIndexes();
+        return idIndex;
+    }
+
+    /**
+     * Creates a cursor reading the log from its first record.
+     *
+     * @return the cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Deletes the segment files if the log is temporary. The mappings are released when they are garbage collected.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (temporary) {
+            for (int i = 0; i < segments.size(); i++) {
+                Files.deleteIfExists(segmentFile(i));
+            }
+        }
+        segments.clear();
+        current = null;
+    }
+
+    private Path segmentFile(int index) {
+        return dir.resolve(String.format(SEGMENT_FILE_PREFIX + "%08d", index));
+    }
+
+    /**
+     * Reads the records of a {@link MappedLog} sequentially. Items are deserialized from mapped memory through a view
+     * of the segment that is reused for all records. As segments are direct buffers, serializers either decode them in
+     * place or copy every record once into a reused scratch array, so reading doesn't allocate anything but the item
+     * itself. Not thread-safe, use one cursor per reader thread.
+     */
+    public class Cursor {
+
+        private long read;
+
+        private int segment = -1;
+
+        private ByteBuffer view;
+
+        private Cursor() {
+        }
+
+        /**
+         * Returns if a record is available. Returns {@code false} at the end of the log, but may return {@code true}
+         * after records have been appended.
+         *
+         * @return {@code true} if {@link #next()} returns a record without blocking
+         */
+        public boolean hasNext() {
+            return read < committed;
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            while (true) {
+                if (view == null || view.remaining() < LENGTH_PREFIX) {
+                    nextSegment();
+                    continue;
+                }
+                int length = view.getInt();
+                if (length == END_OF_SEGMENT) {
+                    nextSegment();
+                    continue;
+                }
+                int end = view.position() + length;
+                view.limit(end);
+                T item = serializer.deserialize(view);
+                view.limit(view.capacity()).position(end);
+                read++;
+                return item;
+            }
+        }
+
+        private void nextSegment() {
+            view = segment(++segment).duplicate();
+            view.clear().position(HEADER);
+        }
+    }
+}
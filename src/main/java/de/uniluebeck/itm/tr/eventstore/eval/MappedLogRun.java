@@ -0,0 +1,317 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.base.Function;
+import de.uniluebeck.itm.util.scheduler.SchedulerService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToLongFunction;
+
+/**
+ * Like {@link EventStoreRun} but items are appended to a {@link MappedLog} instead of an event store. As the log does
+ * nothing but copying serialized items into memory-mapped files, this run shows the lower bound of the cost of
+ * persisting items and therefore how much overhead the event store adds on top of it.
+ *
+ * @param <T> the type of items that will be persisted in and read from the log
+ */
+public class MappedLogRun<T> extends EventStoreRun<T> {
+
+    private static class MappedStore<T> extends Store<T> {
+
+        final MappedLog<T> log;
+
+        MappedStore(MappedLog<T> log, AtomicLongArray publishTimes, Syncer syncer) {
+            super(null, publishTimes, null, syncer);
+            this.log = log;
+        }
+
+        @Override
+        public void close() throws IOException {
+            log.close();
+        }
+    }
+
+    public MappedLogRun(int runNr, SchedulerService executor, Params params, Generator<T> generator) {
+        super(runNr, executor, params, generator);
+
+        if (params.getStoreSharing() == StoreSharing.SHARED_COMBINING) {
+            throw new IllegalArgumentException("The mapped log can not be combined, use " + StoreSharing.SHARED
+                    + " instead!");
+        }
+        if (params.getIdIndex() && generator.getIdFunction() == null) {
+            throw new IllegalArgumentException("Items of " + generator.getGeneratedClass().getSimpleName()
+                    + " don't carry IDs to be indexed!");
+        }
+        if (params.getReaderThreadCnt() > 0 && params.getReaderMode() == ReaderMode.LOOKUP && !params.getIdIndex()) {
+            throw new IllegalArgumentException(ReaderMode.LOOKUP + " readers require an ID index!");
+        }
+        if (tracksTimestamps() && generator.getTimestampFunction() == null) {
+            throw new IllegalArgumentException("Items of " + generator.getGeneratedClass().getSimpleName()
+                    + " don't carry timestamps!");
+        }
+        if (params.getRangeSelectivity() <= 0 || params.getRangeSelectivity() > 1) {
+            throw new IllegalArgumentException("The range selectivity must be greater than 0 and at most 1!");
+        }
+    }
+
+    /**
+     * Range queries choose their ranges from the time span of the log, so the log tracks the timestamps of items for
+     * them even if they scan all records.
+     */
+    private boolean tracksTimestamps() {
+        return params.getTimeIndex()
+                || params.getReaderThreadCnt() > 0 && params.getReaderMode() == ReaderMode.RANGE_QUERY;
+    }
+
+    @Override
+    protected Store<T> openStore(Path dir, Durability durability) throws IOException {
+        AtomicLongArray publishTimes = createPublishTimes();
+        MappedLog<T> log = new MappedLog<>(
+                dir,
+                params.getMmapSegmentSize(),
+                generator.getBufferSerializer(),
+                createAppendListener(publishTimes),
+                params.getReopenItems() == 0,
+                params.getIdIndex() ? generator.getIdFunction() : null,
+                params.getNodeIndex() ? generator.getNodeUrnFunction() : null,
+                tracksTimestamps() ? generator.getTimestampFunction() : null
+        );
+        return new MappedStore<>(log, publishTimes, createSyncer(durability, log::force));
+    }
+
+    @Override
+    protected long getUsedBytes(Store<T> store) {
+        return ((MappedStore<T>) store).log.getUsedBytes();
+    }
+
+    @Override
+    protected void readFirstItem(Store<T> store) {
+        MappedLog<T>.Cursor cursor = ((MappedStore<T>) store).log.cursor();
+        if (cursor.hasNext()) {
+            cursor.next();
+        }
+    }
+
+    @Override
+    protected Runnable createReader(Object store, CompletableFuture<WorkerStats> future) {
+        @SuppressWarnings("unchecked") MappedStore<T> s = (MappedStore<T>) store;
+        switch (params.getReaderMode()) {
+            case SCAN:
+                return createScanningReader(s, future);
+            case TAIL:
+                return createTailingReader(s, future);
+            case LOOKUP:
+                return createLookupReader(s, future);
+            case NODE_QUERY:
+                return createNodeQueryReader(generator.split(), nodeUrn -> params.getNodeIndex() ?
+                        queryNodeIndex(s, nodeUrn) : scanNodeItems(s, nodeUrn), future);
+            case RANGE_QUERY:
+                return createRangeQueryReader(s, future);
+            default:
+                throw new IllegalArgumentException(params.getReaderMode() + " readers are not supported!");
+        }
+    }
+
+    private long queryNodeIndex(MappedStore<T> store, String nodeUrn) {
+        long found = 0;
+        for (Iterator<T> items = store.log.getByNodeUrn(nodeUrn); items.hasNext(); ) {
+            items.next();
+            found++;
+        }
+        return found;
+    }
+
+    private long scanNodeItems(MappedStore<T> store, String nodeUrn) {
+        Function<T, String> nodeUrnFunction = generator.getNodeUrnFunction();
+        long found = 0;
+        for (MappedLog<T>.Cursor cursor = store.log.cursor(); cursor.hasNext(); ) {
+            if (nodeUrn.equals(nodeUrnFunction.apply(cursor.next()))) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    protected void recordStoreStats(Object store) {
+        @SuppressWarnings("unchecked") MappedStore<T> s = (MappedStore<T>) store;
+        MappedLog<T> log = s.log;
+        stats.addBytesUsed(getUsedBytes(s));
+        if (params.getIdIndex() || params.getNodeIndex() || params.getTimeIndex()) {
+            stats.addIndex(log.getIndexBytes(), log.size());
+        }
+    }
+
+    /**
+     * Creates a reader that looks up randomly chosen items by their ID. Choosing the IDs is not part of the recorded
+     * latencies. Until the first item has been appended the reader waits.
+     */
+    private Runnable createLookupReader(MappedStore<T> store, CompletableFuture<WorkerStats> future) {
+        return () -> {
+
+            SplittableRandom random = new SplittableRandom();
+            while (store.log.size() == 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            }
+
+            WorkerStats workerStats = WorkerStats.createStarted();
+            for (long read = 0; read < params.getReadsPerThread(); read++) {
+
+                long id = store.log.randomId(random);
+                long start = System.nanoTime();
+                T item = store.log.get(id);
+                workerStats.recordLatency(System.nanoTime() - start);
+
+                if (item == null) {
+                    future.completeExceptionally(new IllegalStateException("No item with ID " + id + " found!"));
+                    return;
+                }
+            }
+
+            future.complete(workerStats.stop());
+        };
+    }
+
+    /**
+     * Creates a reader that retrieves all items of randomly chosen time ranges, each covering
+     * {@link Params#getRangeSelectivity()} of the time span of the log when the query starts. Choosing a range is not
+     * part of the recorded latencies. Until the first item has been appended the reader waits.
+     */
+    private Runnable createRangeQueryReader(MappedStore<T> store, CompletableFuture<WorkerStats> future) {
+
+        ToLongFunction<T> timestampFunction = generator.getTimestampFunction();
+
+        return () -> {
+
+            SplittableRandom random = new SplittableRandom();
+            while (store.log.size() == 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            }
+
+            WorkerStats workerStats = WorkerStats.createStarted();
+
+            for (long read = 0; read < params.getReadsPerThread(); read++) {
+
+                long min = store.log.getMinTimestamp();
+                long span = store.log.getMaxTimestamp() - min;
+                long length = (long) (span * params.getRangeSelectivity());
+                long from = min + (span == length ? 0 : random.nextLong(span - length + 1));
+                long to = from + length;
+
+                long start = System.nanoTime();
+                long found = 0;
+                if (params.getTimeIndex()) {
+                    for (Iterator<T> items = store.log.getBetween(from, to); items.hasNext(); ) {
+                        items.next();
+                        found++;
+                    }
+                } else {
+                    for (MappedLog<T>.Cursor cursor = store.log.cursor(); cursor.hasNext(); ) {
+                        long timestamp = timestampFunction.applyAsLong(cursor.next());
+                        if (timestamp >= from && timestamp <= to) {
+                            found++;
+                        }
+                    }
+                }
+                workerStats.recordLatency(System.nanoTime() - start);
+                workerStats.addItemsFound(found);
+            }
+
+            future.complete(workerStats.stop());
+        };
+    }
+
+    private Runnable createScanningReader(MappedStore<T> store, CompletableFuture<WorkerStats> future) {
+        return () -> {
+
+            WorkerStats workerStats = WorkerStats.createStarted();
+            long readsPerThread = params.getReadsPerThread();
+
+            for (long read = 0; read < readsPerThread; ) {
+
+                MappedLog<T>.Cursor cursor = store.log.cursor();
+                while (read < readsPerThread) {
+                    long start = System.nanoTime();
+                    if (!cursor.hasNext()) {
+                        break;
+                    }
+                    cursor.next();
+                    workerStats.recordLatency(System.nanoTime() - start);
+                    read++;
+                }
+            }
+
+            future.complete(workerStats.stop());
+        };
+    }
+
+    /**
+     * Creates a reader that follows the log while the writers append to it, spinning briefly and then parking while
+     * no new record is available.
+     */
+    private Runnable createTailingReader(MappedStore<T> store, CompletableFuture<WorkerStats> future) {
+        return () -> {
+
+            AtomicLongArray published = store.publishTimes;
+            WorkerStats workerStats = WorkerStats.createStarted();
+            long readsPerThread = Math.min(params.getReadsPerThread(), published.length());
+            MappedLog<T>.Cursor cursor = store.log.cursor();
+
+            for (int read = 0; read < readsPerThread; read++) {
+
+                long start = System.nanoTime();
+                for (int spins = 0; !cursor.hasNext(); spins++) {
+                    if (spins < 100) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                    }
+                }
+                cursor.next();
+                long seen = System.nanoTime();
+
+                workerStats.recordLatency(seen - start);
+                long publishTime = published.get(read);
+                if (publishTime != 0) {
+                    workerStats.recordEndToEndLatency(seen - publishTime);
+                }
+            }
+            workerStats.setOperations(readsPerThread);
+
+            future.complete(workerStats.stop());
+        };
+    }
+
+    @Override
+    protected Appender<T> createAppender(Store<T> store) {
+
+        MappedLog<T> log = ((MappedStore<T>) store).log;
+        Syncer syncer = store.syncer;
+
+        return new Appender<T>() {
+
+            @Override
+            public void append(T item, long startNanos) throws IOException {
+                log.append(item, startNanos);
+                syncer.appended(1);
+            }
+
+            @Override
+            public void appendBatch(Object[] batch, int length, long startNanos) throws IOException {
+                log.appendBatch(batch, length, startNanos);
+                syncer.appended(length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                syncer.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+/**
+ * The {@link RunStats.Field}s that are aggregated over repeated runs and checked against a baseline.
+ */
+public enum Metric {
+
+    READ_THROUGHPUT(RunStats.Field.AVG_READING_OPS_PER_S, true),
+    WRITE_THROUGHPUT(RunStats.Field.AVG_WRITING_OPS_PER_S, true),
+    READ_LATENCY_P50(RunStats.Field.READ_LATENCY_P50_NS, false),
+    READ_LATENCY_P99(RunStats.Field.READ_LATENCY_P99_NS, false),
+    WRITE_LATENCY_P50(RunStats.Field.WRITE_LATENCY_P50_NS, false),
+    WRITE_LATENCY_P99(RunStats.Field.WRITE_LATENCY_P99_NS, false),
+    WRITE_LATENCY_P999(RunStats.Field.WRITE_LATENCY_P999_NS, false),
+    END_TO_END_LATENCY_P99(RunStats.Field.END_TO_END_LATENCY_P99_NS, false);
+
+    private final RunStats.Field field;
+
+    private final boolean higherIsBetter;
+
+    Metric(RunStats.Field field, boolean higherIsBetter) {
+        this.field = field;
+        this.higherIsBetter = higherIsBetter;
+    }
+
+    public double valueOf(RunStats<?> stats) {
+        return Double.parseDouble(stats.get(field));
+    }
+
+    /**
+     * Returns whether {@code current} is worse than {@code baseline} by more than the given relative tolerance.
+     *
+     * @param baseline  the baseline value
+     * @param current   the current value
+     * @param tolerance the relative tolerance, e.g., 0.05 for 5%
+     * @return {@code true} if {@code current} is worse
+     */
+    public boolean isWorse(double baseline, double current, double tolerance) {
+        return higherIsBetter ? current < baseline * (1 - tolerance) : current > baseline * (1 + tolerance);
+    }
+}
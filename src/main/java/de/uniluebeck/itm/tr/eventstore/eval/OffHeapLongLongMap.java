@@ -0,0 +1,256 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * An open-addressed hash map from {@code long} keys to non-negative {@code long} values with linear probing. Entries
+ * are stored in direct buffers of up to 2^20 slots each, so that the map neither puts objects on the heap that the
+ * garbage collector has to trace nor is limited to 2 GB. The map doubles its capacity when it is more than half full.
+ * <p>
+ * Writers are serialized by a {@link StampedLock}. Lookups don't block: they read optimistically and retry under the
+ * read lock only if a write happened in between.
+ */
+class OffHeapLongLongMap {
+
+    /**
+     * Returned by {@link #get(long)} for absent keys.
+     */
+    static final long ABSENT = -1;
+
+    private static final int SLOT_SIZE = 16;
+
+    private static final int MAX_CHUNK_BITS = 20;
+
+    /**
+     * Marks empty slots, the key 0 itself is kept outside of the table.
+     */
+    private static final long EMPTY_KEY = 0;
+
+    /**
+     * The slots, replaced as a whole when the map grows, so that lookups never see a partially rehashed table.
+     */
+    private static class Table {
+
+        final ByteBuffer[] chunks;
+
+        final long capacity;
+
+        final int chunkBits;
+
+        Table(long capacity) {
+            this.capacity = capacity;
+            this.chunkBits = Math.min(MAX_CHUNK_BITS, Long.numberOfTrailingZeros(capacity));
+            int chunkSlots = 1 << chunkBits;
+            this.chunks = new ByteBuffer[(int) (capacity >>> chunkBits)];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = ByteBuffer.allocateDirect(chunkSlots * SLOT_SIZE);
+            }
+        }
+
+        long key(long slot) {
+            return chunks[(int) (slot >>> chunkBits)].getLong(offset(slot));
+        }
+
+        long value(long slot) {
+            return chunks[(int) (slot >>> chunkBits)].getLong(offset(slot) + 8);
+        }
+
+        void put(long slot, long key, long value) {
+            ByteBuffer chunk = chunks[(int) (slot >>> chunkBits)];
+            int offset = offset(slot);
+            chunk.putLong(offset + 8, value);
+            chunk.putLong(offset, key);
+        }
+
+        private int offset(long slot) {
+            return (int) (slot & ((1 << chunkBits) - 1)) * SLOT_SIZE;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+
+    private Table table;
+
+    private long size;
+
+    private boolean hasZeroKey;
+
+    private long zeroKeyValue;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedKeys the number of keys the map should hold without growing
+     */
+    OffHeapLongLongMap(long expectedKeys) {
+        long capacity = Long.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        this.table = new Table(capacity);
+    }
+
+    /**
+     * Returns the value of {@code key}.
+     *
+     * @param key the key
+     * @return the value or {@link #ABSENT}
+     */
+    long get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        long value = find(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = find(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    private long find(long key) {
+        if (key == EMPTY_KEY) {
+            return hasZeroKey ? zeroKeyValue : ABSENT;
+        }
+        Table t = table;
+        long mask = t.capacity - 1;
+        // bounded in case of reading a table that is concurrently written to
+        for (long slot = hash(key) & mask, probes = 0; probes < t.capacity; slot = (slot + 1) & mask, probes++) {
+            long slotKey = t.key(slot);
+            if (slotKey == key) {
+                return t.value(slot);
+            }
+            if (slotKey == EMPTY_KEY) {
+                return ABSENT;
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, replacing the previous value of {@code key}.
+     *
+     * @param key   the key
+     * @param value the value, must not be negative
+     */
+    void put(long key, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must not be negative!");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (key == EMPTY_KEY) {
+                if (!hasZeroKey) {
+                    size++;
+                }
+                hasZeroKey = true;
+                zeroKeyValue = value;
+                return;
+            }
+            if (2 * (size + 1) > table.capacity) {
+                grow();
+            }
+            if (insert(table, key, value)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@code key} was not contained in {@code t} before.
+     */
+    private static boolean insert(Table t, long key, long value) {
+        long mask = t.capacity - 1;
+        for (long slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long slotKey = t.key(slot);
+            if (slotKey == EMPTY_KEY || slotKey == key) {
+                t.put(slot, key, value);
+                return slotKey == EMPTY_KEY;
+            }
+        }
+    }
+
+    private void grow() {
+        Table old = table;
+        Table grown = new Table(old.capacity * 2);
+        for (long slot = 0; slot < old.capacity; slot++) {
+            long key = old.key(slot);
+            if (key != EMPTY_KEY) {
+                insert(grown, key, old.value(slot));
+            }
+        }
+        table = grown;
+    }
+
+    /**
+     * Returns a key of the map chosen by probing random slots, i.e., keys are chosen (almost) uniformly.
+     *
+     * @param random the source of randomness
+     * @return a key of the map
+     * @throws IllegalStateException if the map is empty
+     */
+    long randomKey(SplittableRandom random) {
+        long stamp = lock.readLock();
+        try {
+            long tableSize = hasZeroKey ? size - 1 : size;
+            if (tableSize == 0) {
+                if (hasZeroKey) {
+                    return EMPTY_KEY;
+                }
+                throw new IllegalStateException("The map is empty!");
+            }
+            Table t = table;
+            while (true) {
+                long key = t.key(random.nextLong(t.capacity));
+                if (key != EMPTY_KEY) {
+                    return key;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return the number of keys
+     */
+    long size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the size of the direct memory allocated by the map.
+     *
+     * @return the size in bytes
+     */
+    long sizeInBytes() {
+        long stamp = lock.readLock();
+        try {
+            return table.capacity * SLOT_SIZE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * The finalization step of MurmurHash3, spreading (sequential) IDs over the whole table.
+     */
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
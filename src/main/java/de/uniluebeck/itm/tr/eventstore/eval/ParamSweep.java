@@ -0,0 +1,196 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import de.uniluebeck.itm.util.propconf.PropConfModule;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+
+/**
+ * Expands an evaluation config file whose values may be lists or ranges into the cartesian product of all
+ * configurations. Supported value syntax:
+ * <ul>
+ * <li>{@code 0,1,2,4,8} - a list of values</li>
+ * <li>{@code 1..8} - all integers from 1 to 8 (inclusive)</li>
+ * <li>{@code 64..4096 x2} - 64, 128, ..., 4096 (multiplying by the given factor)</li>
+ * <li>{@code 0..100 +25} - 0, 25, ..., 100 (adding the given step)</li>
+ * </ul>
+ * List elements may be ranges themselves. Every other value is passed to {@link Params} as is.
+ */
+public class ParamSweep {
+
+    private static final Pattern RANGE = Pattern.compile("(-?\\d+)\\s*\\.\\.\\s*(-?\\d+)(?:\\s*([x+])\\s*(\\d+))?");
+
+    private final Map<String, String> fixed;
+
+    private final Map<String, List<String>> swept;
+
+    private ParamSweep(Map<String, String> fixed, Map<String, List<String>> swept) {
+        this.fixed = fixed;
+        this.swept = swept;
+    }
+
+    public static ParamSweep load(File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        return of(properties);
+    }
+
+    public static ParamSweep of(Properties properties) {
+        Map<String, String> fixed = new TreeMap<>();
+        Map<String, List<String>> swept = newLinkedHashMap();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            String value = properties.getProperty(key).trim();
+            List<String> values = expand(key, value);
+            if (values.size() == 1) {
+                fixed.put(key, values.get(0));
+            } else {
+                swept.put(key, values);
+            }
+        }
+        return new ParamSweep(fixed, swept);
+    }
+
+    /**
+     * Returns the names of the parameters that take more than one value.
+     *
+     * @return the swept parameter names (sorted)
+     */
+    public List<String> getSweptParams() {
+        return newArrayList(swept.keySet());
+    }
+
+    /**
+     * Returns all configurations of the sweep. The last swept parameter (in alphabetical order) varies fastest.
+     *
+     * @return the configurations, at least one
+     */
+    public List<Configuration> configurations() {
+        List<Configuration> configurations = newArrayList();
+        configurations.add(new Configuration(fixed, Collections.<String, String>emptyMap()));
+        for (Map.Entry<String, List<String>> entry : swept.entrySet()) {
+            List<Configuration> expanded = newArrayList();
+            for (Configuration configuration : configurations) {
+                for (String value : entry.getValue()) {
+                    Map<String, String> sweptValues = newLinkedHashMap(configuration.sweptValues);
+                    sweptValues.put(entry.getKey(), value);
+                    expanded.add(new Configuration(fixed, sweptValues));
+                }
+            }
+            configurations = expanded;
+        }
+        return configurations;
+    }
+
+    static List<String> expand(String key, String value) {
+        List<String> values = newArrayList();
+        for (String element : Splitter.on(',').trimResults().omitEmptyStrings().split(value)) {
+            Matcher matcher = RANGE.matcher(element);
+            if (!matcher.matches()) {
+                values.add(element);
+                continue;
+            }
+            long from = Long.parseLong(matcher.group(1));
+            long to = Long.parseLong(matcher.group(2));
+            String op = matcher.group(3) == null ? "+" : matcher.group(3);
+            long step = matcher.group(4) == null ? 1 : Long.parseLong(matcher.group(4));
+            if (from > to || ("+".equals(op) && step < 1) || ("x".equals(op) && (step < 2 || from < 1))) {
+                throw new IllegalArgumentException("Invalid range \"" + element + "\" for parameter " + key);
+            }
+            for (long i = from; i <= to; i = "x".equals(op) ? i * step : i + step) {
+                values.add(String.valueOf(i));
+            }
+        }
+        if (values.isEmpty()) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * One point of a {@link ParamSweep}.
+     */
+    public static class Configuration {
+
+        private final Map<String, String> fixed;
+
+        private final Map<String, String> sweptValues;
+
+        private Configuration(Map<String, String> fixed, Map<String, String> sweptValues) {
+            this.fixed = fixed;
+            this.sweptValues = sweptValues;
+        }
+
+        /**
+         * Returns the values of the swept parameters in this configuration.
+         *
+         * @return parameter name to value, in sweep order
+         */
+        public Map<String, String> getSweptValues() {
+            return Collections.unmodifiableMap(sweptValues);
+        }
+
+        /**
+         * Returns a key that identifies this configuration within the sweep, e.g.,
+         * {@code reader_thread_cnt=2 writer_thread_cnt=4}.
+         *
+         * @return the configuration key, {@code default} if nothing is swept
+         */
+        public String getKey() {
+            return sweptValues.isEmpty() ? "default" : Joiner.on(' ').withKeyValueSeparator("=").join(sweptValues);
+        }
+
+        public Properties toProperties() {
+            Properties properties = new Properties();
+            fixed.forEach(properties::setProperty);
+            sweptValues.forEach(properties::setProperty);
+            return properties;
+        }
+
+        /**
+         * Creates an injector that provides {@link Params} (and everything depending on them) for this configuration.
+         *
+         * @return the injector
+         */
+        public Injector createInjector() {
+            try {
+
+                File file = File.createTempFile("eventstore-eval", ".properties");
+                file.deleteOnExit();
+                try (OutputStream out = new FileOutputStream(file)) {
+                    toProperties().store(out, getKey());
+                }
+
+                return Guice.createInjector(new PropConfModule(file, Params.class));
+
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getKey();
+        }
+    }
+}
@@ -37,6 +37,61 @@ public class Params {
     @Named(WARM_UP)
     private boolean warmUp;
 
+    @PropConf(
+            usage = "file to write mean, median, standard deviation and 95% confidence interval of throughput and "
+                    + "latency per configuration to (as JSON), empty for none",
+            defaultValue = ""
+    )
+    public static final String REPORT_FILE = "report_file";
+
+    @Inject
+    @Named(REPORT_FILE)
+    private String reportFile;
+
+    @PropConf(
+            usage = "report file (as written to " + REPORT_FILE + ") of a previous evaluation to compare against, the "
+                    + "evaluation fails if a metric regressed significantly, empty for none",
+            defaultValue = ""
+    )
+    public static final String BASELINE_FILE = "baseline_file";
+
+    @Inject
+    @Named(BASELINE_FILE)
+    private String baselineFile;
+
+    @PropConf(
+            usage = "relative deviation from the baseline that is tolerated before a significant difference counts as "
+                    + "a regression",
+            defaultValue = "0.05"
+    )
+    public static final String REGRESSION_TOLERANCE = "regression_tolerance";
+
+    @Inject
+    @Named(REGRESSION_TOLERANCE)
+    private double regressionTolerance;
+
+    @PropConf(
+            usage = "generate items before the run and replay them during the run instead of generating them inline "
+                    + "in the writer threads",
+            defaultValue = "false"
+    )
+    public static final String PREGENERATE = "pregenerate";
+
+    @Inject
+    @Named(PREGENERATE)
+    private boolean pregenerate;
+
+    @PropConf(
+            usage = "number of items generated before the run if " + PREGENERATE + " is set (rounded up to the next "
+                    + "power of two), writers cycle through them",
+            defaultValue = "65536"
+    )
+    public static final String PREGENERATED_ITEMS = "pregenerated_items";
+
+    @Inject
+    @Named(PREGENERATED_ITEMS)
+    private int pregeneratedItems;
+
     @PropConf(
             usage = "number of items to be persisted per writer thread",
             defaultValue = "1000000"
@@ -47,6 +102,222 @@ public class Params {
     @Named(WRITES_PER_THREAD)
     private long writesPerThread;
 
+    @PropConf(
+            usage = "name of the storage backend to be evaluated, one of eventstore, eventstore-async, mmap, log4j, "
+                    + "log4j2, log4j2-async (or another registered backend)",
+            defaultValue = Backends.EVENTSTORE
+    )
+    public static final String BACKEND = "backend";
+
+    @Inject
+    @Named(BACKEND)
+    private String backend;
+
+    @PropConf(
+            usage = "size in bytes of the memory-mapped segment files of the mmap backend",
+            defaultValue = "67108864"
+    )
+    public static final String MMAP_SEGMENT_SIZE = "mmap_segment_size";
+
+    @Inject
+    @Named(MMAP_SEGMENT_SIZE)
+    private int mmapSegmentSize;
+
+    @PropConf(
+            usage = "number of slots of the ring buffer of asynchronous stores and async loggers, must be a power of two",
+            defaultValue = "65536"
+    )
+    public static final String ASYNC_RING_SIZE = "async_ring_size";
+
+    @Inject
+    @Named(ASYNC_RING_SIZE)
+    private int asyncRingSize;
+
+    @PropConf(
+            usage = "how the consumer thread of asynchronous stores and async loggers waits for new items, one of "
+                    + "BUSY_SPIN (not supported by async loggers), YIELDING, SLEEPING or BLOCKING",
+            defaultValue = "YIELDING"
+    )
+    public static final String ASYNC_WAIT_STRATEGY = "async_wait_strategy";
+
+    @Inject
+    @Named(ASYNC_WAIT_STRATEGY)
+    private AsyncWaitStrategy asyncWaitStrategy;
+
+    @PropConf(
+            usage = "number of items persisted as one unit by a writer thread, 1 to persist items one by one",
+            defaultValue = "1"
+    )
+    public static final String BATCH_SIZE = "batch_size";
+
+    @Inject
+    @Named(BATCH_SIZE)
+    private int batchSize;
+
+    @PropConf(
+            usage = "when stores force appended items to disk, one of NONE, EVERY_N_EVENTS (see "
+                    + "durability_interval_events), EVERY_T_MS (see durability_interval_ms) or PER_BATCH (after every "
+                    + "item or batch, concurrent writers of a shared store share syncs)",
+            defaultValue = "NONE"
+    )
+    public static final String DURABILITY = "durability";
+
+    @Inject
+    @Named(DURABILITY)
+    private Durability durability;
+
+    @PropConf(
+            usage = "number of events appended to a store between two syncs if durability is EVERY_N_EVENTS",
+            defaultValue = "1000"
+    )
+    public static final String DURABILITY_INTERVAL_EVENTS = "durability_interval_events";
+
+    @Inject
+    @Named(DURABILITY_INTERVAL_EVENTS)
+    private long durabilityIntervalEvents;
+
+    @PropConf(
+            usage = "minimal number of milliseconds between two syncs of a store if durability is EVERY_T_MS",
+            defaultValue = "100"
+    )
+    public static final String DURABILITY_INTERVAL_MS = "durability_interval_ms";
+
+    @Inject
+    @Named(DURABILITY_INTERVAL_MS)
+    private long durabilityIntervalMillis;
+
+    @PropConf(
+            usage = "how the serialized payload of items is compressed before it is stored, one of NONE, RECORD "
+                    + "(deflate every payload on its own) or DICTIONARY (deflate every payload with a preset dictionary "
+                    + "sampled from generated items), meaningful with payload SENSOR_TEXT only",
+            defaultValue = "NONE"
+    )
+    public static final String COMPRESSION = "compression";
+
+    @Inject
+    @Named(COMPRESSION)
+    private Compression compression;
+
+    @PropConf(
+            usage = "deflate level from 1 (fastest) to 9 (smallest) if compression is not NONE",
+            defaultValue = "1"
+    )
+    public static final String COMPRESSION_LEVEL = "compression_level";
+
+    @Inject
+    @Named(COMPRESSION_LEVEL)
+    private int compressionLevel;
+
+    @PropConf(
+            usage = "whether stores maintain an off-heap index from the IDs of items to their records, required by "
+                    + "LOOKUP readers",
+            defaultValue = "false"
+    )
+    public static final String ID_INDEX = "id_index";
+
+    @Inject
+    @Named(ID_INDEX)
+    private boolean idIndex;
+
+    @PropConf(
+            usage = "whether stores maintain an index from node URNs to the records of the nodes, which NODE_QUERY "
+                    + "readers use instead of scanning all events",
+            defaultValue = "false"
+    )
+    public static final String NODE_INDEX = "node_index";
+
+    @Inject
+    @Named(NODE_INDEX)
+    private boolean nodeIndex;
+
+    @PropConf(
+            usage = "whether RANGE_QUERY readers skip events outside of the range using the minimum and maximum "
+                    + "timestamps of events per segment and block of records instead of scanning all events (the "
+                    + "timestamps are maintained by stores with this index or RANGE_QUERY readers)",
+            defaultValue = "false"
+    )
+    public static final String TIME_INDEX = "time_index";
+
+    @Inject
+    @Named(TIME_INDEX)
+    private boolean timeIndex;
+
+    @PropConf(
+            usage = "fraction of the time span of the stored events covered by the range of a RANGE_QUERY reader, "
+                    + "between 0 and 1",
+            defaultValue = "0.01"
+    )
+    public static final String RANGE_SELECTIVITY = "range_selectivity";
+
+    @Inject
+    @Named(RANGE_SELECTIVITY)
+    private double rangeSelectivity;
+
+    @PropConf(
+            usage = "number of distinct nodes that generated events originate from, 0 for random 32 bit node IDs",
+            defaultValue = "0"
+    )
+    public static final String NODE_COUNT = "node_count";
+
+    @Inject
+    @Named(NODE_COUNT)
+    private int nodeCount;
+
+    @PropConf(
+            usage = "if greater than 0, every store is a persistent store holding this number of items, which is "
+                    + "populated once and reopened (and timed) at the start of every run, see reopen_dir",
+            defaultValue = "0"
+    )
+    public static final String REOPEN_ITEMS = "reopen_items";
+
+    @Inject
+    @Named(REOPEN_ITEMS)
+    private long reopenItems;
+
+    @PropConf(
+            usage = "directory of the persistent stores if reopen_items is greater than 0, a directory in "
+                    + "java.io.tmpdir if empty",
+            defaultValue = ""
+    )
+    public static final String REOPEN_DIR = "reopen_dir";
+
+    @Inject
+    @Named(REOPEN_DIR)
+    private String reopenDir;
+
+    @PropConf(
+            usage = "number of items to be persisted per second and writer thread on a fixed schedule with latencies "
+                    + "measured from the intended start time (open loop), 0 for writing as fast as possible (closed loop)",
+            defaultValue = "0"
+    )
+    public static final String WRITER_TARGET_RATE = "writer_target_rate";
+
+    @Inject
+    @Named(WRITER_TARGET_RATE)
+    private long writerTargetRate;
+
+    @PropConf(
+            usage = "if greater than 0, the writer threads carry this number of simulated sensor nodes, which write "
+                    + "the items of their writer thread as lightweight tasks at simulated_node_rate each (open loop)",
+            defaultValue = "0"
+    )
+    public static final String SIMULATED_NODES = "simulated_nodes";
+
+    @Inject
+    @Named(SIMULATED_NODES)
+    private int simulatedNodes;
+
+    @PropConf(
+            usage = "number of items to be persisted per second and simulated node if simulated_nodes is greater "
+                    + "than 0",
+            defaultValue = "1"
+    )
+    public static final String SIMULATED_NODE_RATE = "simulated_node_rate";
+
+    @Inject
+    @Named(SIMULATED_NODE_RATE)
+    private double simulatedNodeRate;
+
     @PropConf(
             usage = "number of items to be read per writer thread",
             defaultValue = "1000000"
@@ -57,6 +328,20 @@ public class Params {
     @Named(READS_PER_THREAD)
     private long readsPerThread;
 
+    @PropConf(
+            usage = "workload of the reader threads, one of SCAN (iterate over all events repeatedly), TAIL (follow "
+                    + "the store while it is written to and measure the latency until written events are visible), "
+                    + "LOOKUP (look up random events by their ID, see id_index), NODE_QUERY (retrieve all events of "
+                    + "random nodes, see node_index) or RANGE_QUERY (retrieve all events of random time ranges, see "
+                    + "time_index and range_selectivity)",
+            defaultValue = "SCAN"
+    )
+    public static final String READER_MODE = "reader_mode";
+
+    @Inject
+    @Named(READER_MODE)
+    private ReaderMode readerMode;
+
     @PropConf(
             usage = "number of reader threads",
             defaultValue = "0"
@@ -77,6 +362,18 @@ public class Params {
     @Named(WRITER_THREAD_CNT)
     private int writerThreadCnt = 5;
 
+    @PropConf(
+            usage = "assignment of writer threads to stores, one of PER_WRITER (every writer has its own store), "
+                    + "SHARED (all writers append to one store under one lock) or SHARED_COMBINING (all writers append "
+                    + "to one store through a flat combining front-end)",
+            defaultValue = "PER_WRITER"
+    )
+    public static final String STORE_SHARING = "store_sharing";
+
+    @Inject
+    @Named(STORE_SHARING)
+    private StoreSharing storeSharing;
+
     @PropConf(
             usage = "minimal number of bytes for payload to be generated",
             defaultValue = "40"
@@ -97,6 +394,17 @@ public class Params {
     @Named(PAYLOAD_MAX_LENGTH)
     private int payloadMaxLength;
 
+    @PropConf(
+            usage = "content of generated payloads, RANDOM (uniformly random, incompressible bytes) or SENSOR_TEXT "
+                    + "(repetitive text readings of sensor nodes, to be used for compression sweeps)",
+            defaultValue = "RANDOM"
+    )
+    public static final String PAYLOAD = "payload";
+
+    @Inject
+    @Named(PAYLOAD)
+    private Payload payload;
+
     @PropConf(
             usage = "fully-qualified class name of the generator function to create items to be persisted",
             defaultValue = "de.uniluebeck.itm.tr.eventstore.eval.RandomMessageGenerator",
@@ -112,14 +420,118 @@ public class Params {
         return warmUp;
     }
 
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public String getBaselineFile() {
+        return baselineFile;
+    }
+
+    public double getRegressionTolerance() {
+        return regressionTolerance;
+    }
+
+    public boolean getPregenerate() {
+        return pregenerate;
+    }
+
+    public int getPregeneratedItems() {
+        return pregeneratedItems;
+    }
+
     public long getWritesPerThread() {
         return writesPerThread;
     }
 
+    public String getBackend() {
+        return backend;
+    }
+
+    public int getMmapSegmentSize() {
+        return mmapSegmentSize;
+    }
+
+    public int getAsyncRingSize() {
+        return asyncRingSize;
+    }
+
+    public AsyncWaitStrategy getAsyncWaitStrategy() {
+        return asyncWaitStrategy;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public long getDurabilityIntervalEvents() {
+        return durabilityIntervalEvents;
+    }
+
+    public long getDurabilityIntervalMillis() {
+        return durabilityIntervalMillis;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public boolean getIdIndex() {
+        return idIndex;
+    }
+
+    public boolean getNodeIndex() {
+        return nodeIndex;
+    }
+
+    public boolean getTimeIndex() {
+        return timeIndex;
+    }
+
+    public double getRangeSelectivity() {
+        return rangeSelectivity;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getReopenItems() {
+        return reopenItems;
+    }
+
+    public String getReopenDir() {
+        return reopenDir;
+    }
+
+    public long getWriterTargetRate() {
+        return writerTargetRate;
+    }
+
+    public int getSimulatedNodes() {
+        return simulatedNodes;
+    }
+
+    public double getSimulatedNodeRate() {
+        return simulatedNodeRate;
+    }
+
     public long getReadsPerThread() {
         return readsPerThread;
     }
 
+    public ReaderMode getReaderMode() {
+        return readerMode;
+    }
+
     public int getReaderThreadCnt() {
         return readerThreadCnt;
     }
@@ -128,6 +540,10 @@ public class Params {
         return writerThreadCnt;
     }
 
+    public StoreSharing getStoreSharing() {
+        return storeSharing;
+    }
+
     public int getPayloadMinLength() {
         return payloadMinLength;
     }
@@ -136,6 +552,10 @@ public class Params {
         return payloadMaxLength;
     }
 
+    public Payload getPayload() {
+        return payload;
+    }
+
     public Class<? extends Generator<?>> getGeneratorClass() {
         return generatorClass;
     }
@@ -0,0 +1,80 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.util.SplittableRandom;
+
+/**
+ * The content of the payloads of generated items.
+ */
+public enum Payload {
+
+    /**
+     * Uniformly random bytes, which are incompressible.
+     */
+    RANDOM {
+        @Override
+        void fill(SplittableRandom random, byte[] bytes, int length) {
+            RandomStringGenerator.nextBytes(random, bytes, length);
+        }
+    },
+
+    /**
+     * Text readings of a sensor node like {@code temp=21.4;hum=48;light=512;batt=2.93V;rssi=-61}, one per line,
+     * repeated until the payload is full. Like the output of real testbed nodes it repeats the same keys with varying
+     * values, so this is the payload to be used for evaluating {@link Params#getCompression()}.
+     */
+    SENSOR_TEXT {
+        @Override
+        void fill(SplittableRandom random, byte[] bytes, int length) {
+            int i = 0;
+            while (i < length) {
+                int temperature = 180 + random.nextInt(80);
+                i = put(bytes, i, length, "temp=");
+                i = put(bytes, i, length, temperature / 10);
+                i = put(bytes, i, length, ".");
+                i = put(bytes, i, length, temperature % 10);
+                i = put(bytes, i, length, ";hum=");
+                i = put(bytes, i, length, 30 + random.nextInt(40));
+                i = put(bytes, i, length, ";light=");
+                i = put(bytes, i, length, random.nextInt(1000));
+                i = put(bytes, i, length, ";batt=2.");
+                i = put(bytes, i, length, 90 + random.nextInt(10));
+                i = put(bytes, i, length, "V;rssi=-");
+                i = put(bytes, i, length, 40 + random.nextInt(50));
+                i = put(bytes, i, length, "\n");
+            }
+        }
+    };
+
+    /**
+     * Fills the first {@code length} bytes of {@code bytes} with a payload.
+     *
+     * @param random the source of randomness
+     * @param bytes  the array to fill
+     * @param length the number of bytes to fill
+     */
+    abstract void fill(SplittableRandom random, byte[] bytes, int length);
+
+    /**
+     * Writes the ASCII characters of {@code s} from index {@code i} on, stopping at {@code length}.
+     */
+    private static int put(byte[] bytes, int i, int length, String s) {
+        for (int c = 0; c < s.length() && i < length; c++) {
+            bytes[i++] = (byte) s.charAt(c);
+        }
+        return i;
+    }
+
+    /**
+     * Writes the decimal digits of the non-negative {@code value} from index {@code i} on, stopping at {@code length}.
+     */
+    private static int put(byte[] bytes, int i, int length, int value) {
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0 && i < length; divisor /= 10) {
+            bytes[i++] = (byte) ('0' + value / divisor % 10);
+        }
+        return i;
+    }
+}
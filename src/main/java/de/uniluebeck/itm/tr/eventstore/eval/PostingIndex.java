@@ -0,0 +1,140 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An inverted index from keys to the ascending positions of the records carrying the key. Every posting list stores
+ * the differences between consecutive positions as variable-length integers (7 bits per byte), so that records
+ * following each other closely take one or two bytes per entry.
+ * <p>
+ * Positions are added by a single writer at a time (callers synchronize), while any number of readers may iterate
+ * over the posting lists concurrently. Readers see the positions that were added before they started iterating.
+ */
+class PostingIndex {
+
+    private static final int INITIAL_LIST_BYTES = 16;
+
+    /**
+     * Rough heap footprint of a key (String and its char array) and of a posting list object together with its entry
+     * in the map.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 40 + 32 + 48;
+
+    private static class PostingList {
+
+        /**
+         * Replaced by a larger copy when full. Written before {@link #length} is increased, so that readers reading
+         * {@link #length} first always find at least that many bytes.
+         */
+        volatile byte[] bytes = new byte[INITIAL_LIST_BYTES];
+
+        volatile int length;
+
+        /**
+         * The last position added, only accessed by the writer.
+         */
+        long last;
+    }
+
+    private final ConcurrentMap<String, PostingList> lists = new ConcurrentHashMap<>();
+
+    /**
+     * The estimated footprint of the keys and map entries, only accessed by the writer.
+     */
+    private long keyBytes;
+
+    /**
+     * Adds {@code position} to the posting list of {@code key}. Positions added for a key must be ascending.
+     *
+     * @param key      the key
+     * @param position the position of the record carrying the key
+     */
+    void add(String key, long position) {
+
+        PostingList list = lists.get(key);
+        if (list == null) {
+            list = new PostingList();
+            lists.put(key, list);
+            keyBytes += ENTRY_OVERHEAD_BYTES + 2 * key.length();
+        }
+
+        long delta = position - list.last;
+        if (delta < 0) {
+            throw new IllegalArgumentException("Positions must be added in ascending order!");
+        }
+        list.last = position;
+
+        byte[] bytes = list.bytes;
+        int length = list.length;
+        if (bytes.length - length < 10) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            list.bytes = bytes;
+        }
+        while ((delta & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+        list.length = length;
+    }
+
+    /**
+     * Returns the positions of the records carrying {@code key} in ascending order.
+     *
+     * @param key the key
+     * @return the positions, empty if there are none
+     */
+    PrimitiveIterator.OfLong get(String key) {
+
+        PostingList list = lists.get(key);
+        int length = list == null ? 0 : list.length;
+        byte[] bytes = list == null ? null : list.bytes;
+
+        return new PrimitiveIterator.OfLong() {
+
+            private int offset;
+
+            private long position;
+
+            @Override
+            public boolean hasNext() {
+                return offset < length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = bytes[offset++];
+                    delta |= (b & 0x7FL) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                position += delta;
+                return position;
+            }
+        };
+    }
+
+    /**
+     * Returns the approximate heap footprint of the index, i.e., the capacity of all posting lists plus an estimate for
+     * the keys and the map entries. Must be called by the writer or after writing completed.
+     *
+     * @return the size in bytes
+     */
+    long sizeInBytes() {
+        long size = keyBytes;
+        for (PostingList list : lists.values()) {
+            size += list.bytes.length;
+        }
+        return size;
+    }
+}
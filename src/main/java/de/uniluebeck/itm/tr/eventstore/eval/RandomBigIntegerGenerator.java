@@ -3,11 +3,39 @@ package de.uniluebeck.itm.tr.eventstore.eval;
 import com.google.common.base.Function;
 
 import java.math.BigInteger;
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
 
 public class RandomBigIntegerGenerator implements Generator<BigInteger> {
 
-    private Random random = new Random();
+    /**
+     * Writes the generated values, which all fit into a {@code long}, as eight bytes.
+     */
+    public static final BufferSerializer<BigInteger> BIG_INTEGER_BUFFER_SERIALIZER = new BufferSerializer<BigInteger>() {
+
+        @Override
+        public void serialize(BigInteger item, ByteBuffer target) {
+            if (item.bitLength() > 63) {
+                throw new IllegalArgumentException("Only values in the range of long are supported");
+            }
+            target.putLong(item.longValue());
+        }
+
+        @Override
+        public BigInteger deserialize(ByteBuffer source) {
+            return BigInteger.valueOf(source.getLong());
+        }
+    };
+
+    private final SplittableRandom random;
+
+    public RandomBigIntegerGenerator() {
+        this(new SplittableRandom());
+    }
+
+    private RandomBigIntegerGenerator(SplittableRandom random) {
+        this.random = random;
+    }
 
     @Override
     public boolean hasNext() {
@@ -19,6 +47,11 @@ public class RandomBigIntegerGenerator implements Generator<BigInteger> {
         return BigInteger.valueOf(random.nextLong());
     }
 
+    @Override
+    public Generator<BigInteger> split() {
+        return new RandomBigIntegerGenerator(random.split());
+    }
+
     @Override
     public Class<BigInteger> getGeneratedClass() {
         return BigInteger.class;
@@ -33,4 +66,9 @@ public class RandomBigIntegerGenerator implements Generator<BigInteger> {
     public Function<BigInteger, byte[]> getSerializer() {
         return BigInteger::toByteArray;
     }
+
+    @Override
+    public BufferSerializer<BigInteger> getBufferSerializer() {
+        return BIG_INTEGER_BUFFER_SERIALIZER;
+    }
 }
@@ -1,20 +1,35 @@
 package de.uniluebeck.itm.tr.eventstore.eval;
 
 import com.google.common.base.Function;
-import org.joda.time.DateTime;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomLogStringIterator implements Generator<String> {
 
+    private static final String PREFIX = "urn:wisebed:uzl1:0x";
 
-    private final Random random = new Random(System.currentTimeMillis());
+    /**
+     * Printable ASCII characters the random payload bytes are mapped to, so that every payload character is a single
+     * byte when the line is encoded.
+     */
+    private static final char[] PAYLOAD_CHARS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private final SplittableRandom random;
     private final int minPayloadLength;
     private final int maxPayloadLength;
+    private final byte[] b;
+    private final StringBuilder builder = new StringBuilder(PREFIX);
 
     public RandomLogStringIterator(final int minPayloadLength, final int maxPayloadLength) {
+        this(minPayloadLength, maxPayloadLength, new SplittableRandom());
+    }
+
+    private RandomLogStringIterator(int minPayloadLength, int maxPayloadLength, SplittableRandom random) {
         this.minPayloadLength = minPayloadLength;
         this.maxPayloadLength = maxPayloadLength;
+        this.random = random;
+        this.b = new byte[maxPayloadLength];
     }
 
     @Override
@@ -25,17 +40,24 @@ public class RandomLogStringIterator implements Generator<String> {
     @Override
     public String next() {
 
+        int payloadLength = random.nextInt(minPayloadLength, maxPayloadLength);
+        RandomStringGenerator.nextBytes(random, b, payloadLength);
 
-        byte[] b = new byte[random.nextInt(maxPayloadLength - minPayloadLength) + minPayloadLength];
-        random.nextBytes(b);
+        builder.setLength(PREFIX.length());
+        RandomNodeUrnGenerator.appendHex(builder, random.nextInt());            // Node ID
+        builder.append(',').append(System.currentTimeMillis())                  // Timestamp
+                .append(',').append(random.nextLong())                          // Event ID
+                .append(',').append(random.nextInt(99))                         // Message Type
+                .append(',');
+        for (int i = 0; i < payloadLength; i++) {                               // Payload
+            builder.append(PAYLOAD_CHARS[b[i] & (PAYLOAD_CHARS.length - 1)]);
+        }
+        return builder.toString();
+    }
 
-        //noinspection StringBufferReplaceableByString
-        return new StringBuffer("urn:wisebed:uzl1:0x")
-                .append(Integer.toHexString(random.nextInt()))  // Node ID
-                .append(',').append(DateTime.now().getMillis()) // Timestamp
-                .append(',').append(random.nextLong())          // Event ID
-                .append(',').append(random.nextInt(99))         // Message Type
-                .append(',').append(b).toString();
+    @Override
+    public Generator<String> split() {
+        return new RandomLogStringIterator(minPayloadLength, maxPayloadLength, random.split());
     }
 
     @Override
@@ -52,4 +74,9 @@ public class RandomLogStringIterator implements Generator<String> {
     public Function<String, byte[]> getSerializer() {
         return String::getBytes;
     }
+
+    @Override
+    public BufferSerializer<String> getBufferSerializer() {
+        return StringBufferSerializer.INSTANCE;
+    }
 }
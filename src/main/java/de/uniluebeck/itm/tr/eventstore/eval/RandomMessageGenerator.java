@@ -2,20 +2,32 @@ package de.uniluebeck.itm.tr.eventstore.eval;
 
 import com.google.common.base.Function;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 import de.uniluebeck.itm.tr.iwsn.messages.Event;
 import de.uniluebeck.itm.tr.iwsn.messages.Message;
 import de.uniluebeck.itm.tr.iwsn.messages.UpstreamMessageEvent;
-import org.joda.time.DateTime;
 
 import javax.inject.Inject;
-import java.io.UnsupportedEncodingException;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.function.ToLongFunction;
 
 public class RandomMessageGenerator implements Generator<Message> {
 
     public static final Function<Message, byte[]> MESSAGE_SERIALIZER = Message::toByteArray;
 
+    public static final ToLongFunction<Message> MESSAGE_ID_FUNCTION = message -> message.getEvent().getEventId();
+
+    public static final Function<Message, String> MESSAGE_NODE_URN_FUNCTION =
+            message -> message.getEvent().getUpstreamMessageEvent().getSourceNodeUrn();
+
+    public static final ToLongFunction<Message> MESSAGE_TIMESTAMP_FUNCTION =
+            message -> message.getEvent().getUpstreamMessageEvent().getTimestamp();
+
     public static final Function<byte[], Message> MESSAGE_DESERIALIZER = (byte[] data) -> {
         try {
             return Message.parseFrom(data);
@@ -24,13 +36,107 @@ public class RandomMessageGenerator implements Generator<Message> {
         }
     };
 
-    private final RandomStringGenerator payloadGenerator;
+    /**
+     * Writes messages directly into heap buffers. Direct buffers (like the mapped segments of {@link MappedLog}) are
+     * written and read through a per-thread scratch array, i.e., at the cost of one copy but without allocating
+     * anything per message besides the parsed message itself.
+     */
+    public static final BufferSerializer<Message> MESSAGE_BUFFER_SERIALIZER = new BufferSerializer<Message>() {
+
+        private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[1024]);
+
+        private byte[] scratch(int size) {
+            byte[] bytes = scratch.get();
+            if (bytes.length < size) {
+                bytes = new byte[Math.max(size, bytes.length * 2)];
+                scratch.set(bytes);
+            }
+            return bytes;
+        }
+
+        @Override
+        public void serialize(Message item, ByteBuffer target) {
+
+            int size = item.getSerializedSize();
+            if (target.remaining() < size) {
+                throw new BufferOverflowException();
+            }
+
+            byte[] bytes = target.hasArray() ? target.array() : scratch(size);
+            int offset = target.hasArray() ? target.arrayOffset() + target.position() : 0;
+            try {
+                CodedOutputStream out = CodedOutputStream.newInstance(bytes, offset, size);
+                item.writeTo(out);
+                out.flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            if (target.hasArray()) {
+                target.position(target.position() + size);
+            } else {
+                target.put(bytes, 0, size);
+            }
+        }
+
+        @Override
+        public Message deserialize(ByteBuffer source) {
+            try {
+                if (!source.hasArray()) {
+                    int size = source.remaining();
+                    byte[] bytes = scratch(size);
+                    source.get(bytes, 0, size);
+                    // parsing copies bytes fields, so the scratch array can be reused right away
+                    return Message.parseFrom(CodedInputStream.newInstance(bytes, 0, size));
+                }
+                Message message = Message.parseFrom(CodedInputStream.newInstance(
+                        source.array(),
+                        source.arrayOffset() + source.position(),
+                        source.remaining()
+                ));
+                source.position(source.limit());
+                return message;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    };
+
+    private static final String NODE_URN_PREFIX = "urn:wisebed:uzl1:0x";
+
+    private final int minPayloadLength;
+
+    private final int maxPayloadLength;
+
+    private final int nodeCnt;
+
+    private final Payload payloadContent;
+
+    private final SplittableRandom random;
+
+    private final byte[] payload;
+
+    private final StringBuilder nodeUrn = new StringBuilder(NODE_URN_PREFIX);
+
+    private final Message.Builder builder = Message.newBuilder();
+
+    private final Event.Builder event = Event.newBuilder();
 
-    private final Random random = new Random();
+    private final UpstreamMessageEvent.Builder ume = UpstreamMessageEvent.newBuilder();
 
     @Inject
     public RandomMessageGenerator(Params params) {
-        payloadGenerator = new RandomStringGenerator(params);
+        this(params.getPayloadMinLength(), params.getPayloadMaxLength(), params.getNodeCount(), params.getPayload(),
+                new SplittableRandom());
+    }
+
+    private RandomMessageGenerator(int minPayloadLength, int maxPayloadLength, int nodeCnt, Payload payloadContent,
+                                   SplittableRandom random) {
+        this.minPayloadLength = minPayloadLength;
+        this.maxPayloadLength = maxPayloadLength;
+        this.nodeCnt = nodeCnt;
+        this.payloadContent = payloadContent;
+        this.random = random;
+        this.payload = new byte[maxPayloadLength];
     }
 
     @Override
@@ -41,26 +147,28 @@ public class RandomMessageGenerator implements Generator<Message> {
     @Override
     public Message next() {
 
-        Message.Builder builder = Message.newBuilder();
-        Event.Builder event;
+        int payloadLength = random.nextInt(minPayloadLength, maxPayloadLength);
+        payloadContent.fill(random, payload, payloadLength);
 
-        try {
+        nodeUrn.setLength(NODE_URN_PREFIX.length());
+        RandomNodeUrnGenerator.appendHex(nodeUrn, RandomNodeUrnGenerator.nextNodeId(random, nodeCnt));
 
-            UpstreamMessageEvent.Builder ume = UpstreamMessageEvent.newBuilder()
-                    .setMessageBytes(ByteString.copyFrom(payloadGenerator.next(), "UTF-8"))
-                    .setSourceNodeUrn("urn:wisebed:uzl1:0x" + Integer.toHexString(random.nextInt()))
-                    .setTimestamp(DateTime.now().getMillis());
+        ume.clear()
+                .setMessageBytes(ByteString.copyFrom(payload, 0, payloadLength))
+                .setSourceNodeUrn(nodeUrn.toString())
+                .setTimestamp(System.currentTimeMillis());
 
-            event = Event.newBuilder()
-                    .setEventId(random.nextLong())
-                    .setType(Event.Type.UPSTREAM_MESSAGE)
-                    .setUpstreamMessageEvent(ume);
+        event.clear()
+                .setEventId(random.nextLong())
+                .setType(Event.Type.UPSTREAM_MESSAGE)
+                .setUpstreamMessageEvent(ume);
 
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
-        }
+        return builder.clear().setType(Message.Type.EVENT).setEvent(event).build();
+    }
 
-        return builder.setType(Message.Type.EVENT).setEvent(event).build();
+    @Override
+    public Generator<Message> split() {
+        return new RandomMessageGenerator(minPayloadLength, maxPayloadLength, nodeCnt, payloadContent, random.split());
     }
 
     @Override
@@ -77,4 +185,24 @@ public class RandomMessageGenerator implements Generator<Message> {
     public Function<Message, byte[]> getSerializer() {
         return MESSAGE_SERIALIZER;
     }
+
+    @Override
+    public BufferSerializer<Message> getBufferSerializer() {
+        return MESSAGE_BUFFER_SERIALIZER;
+    }
+
+    @Override
+    public ToLongFunction<Message> getIdFunction() {
+        return MESSAGE_ID_FUNCTION;
+    }
+
+    @Override
+    public Function<Message, String> getNodeUrnFunction() {
+        return MESSAGE_NODE_URN_FUNCTION;
+    }
+
+    @Override
+    public ToLongFunction<Message> getTimestampFunction() {
+        return MESSAGE_TIMESTAMP_FUNCTION;
+    }
 }
@@ -3,16 +3,28 @@ package de.uniluebeck.itm.tr.eventstore.eval;
 import com.google.common.base.Function;
 
 import javax.inject.Inject;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomNodeUrnGenerator implements Generator<String> {
 
-    private final Random random;
+    private static final String PREFIX = "urn:eval:0x";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final SplittableRandom random;
+
+    private final int nodeCnt;
+
+    private final StringBuilder builder = new StringBuilder(PREFIX);
 
     @Inject
-    @SuppressWarnings("UnusedParameters")
     public RandomNodeUrnGenerator(Params params) {
-        random = new Random();
+        this(new SplittableRandom(), params.getNodeCount());
+    }
+
+    private RandomNodeUrnGenerator(SplittableRandom random, int nodeCnt) {
+        this.random = random;
+        this.nodeCnt = nodeCnt;
     }
 
     @Override
@@ -22,7 +34,40 @@ public class RandomNodeUrnGenerator implements Generator<String> {
 
     @Override
     public String next() {
-        return "urn:eval:0x" + Integer.toHexString(random.nextInt());
+        builder.setLength(PREFIX.length());
+        return appendHex(builder, nextNodeId(random, nodeCnt)).toString();
+    }
+
+    @Override
+    public Generator<String> split() {
+        return new RandomNodeUrnGenerator(random.split(), nodeCnt);
+    }
+
+    /**
+     * Returns the ID of a random node.
+     *
+     * @param random  the source of randomness
+     * @param nodeCnt the number of nodes, 0 for any int
+     * @return the node ID
+     */
+    static int nextNodeId(SplittableRandom random, int nodeCnt) {
+        return nodeCnt > 0 ? random.nextInt(nodeCnt) : random.nextInt();
+    }
+
+    /**
+     * Appends the hexadecimal representation of {@code value} to {@code builder} like {@link Integer#toHexString(int)}
+     * but without creating an intermediate String.
+     *
+     * @param builder the builder to append to
+     * @param value   the value
+     * @return {@code builder}
+     */
+    static StringBuilder appendHex(StringBuilder builder, int value) {
+        int shift = value == 0 ? 0 : (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value)) & ~3;
+        for (; shift >= 0; shift -= 4) {
+            builder.append(HEX_DIGITS[(value >>> shift) & 0xF]);
+        }
+        return builder;
     }
 
     @Override
@@ -39,4 +84,14 @@ public class RandomNodeUrnGenerator implements Generator<String> {
     public Function<String, byte[]> getSerializer() {
         return String::getBytes;
     }
+
+    @Override
+    public BufferSerializer<String> getBufferSerializer() {
+        return StringBufferSerializer.INSTANCE;
+    }
+
+    @Override
+    public Function<String, String> getNodeUrnFunction() {
+        return nodeUrn -> nodeUrn;
+    }
 }
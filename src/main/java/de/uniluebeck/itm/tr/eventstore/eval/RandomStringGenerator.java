@@ -3,19 +3,30 @@ package de.uniluebeck.itm.tr.eventstore.eval;
 import com.google.common.base.Function;
 
 import javax.inject.Inject;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomStringGenerator implements Generator<String> {
 
     private final int minLength;
     private final int maxLength;
 
-    private Random random = new Random(System.currentTimeMillis());
+    private final Payload payload;
+
+    private final SplittableRandom random;
+
+    private final byte[] buffer;
 
     @Inject
     public RandomStringGenerator(Params params) {
-        this.minLength = params.getPayloadMinLength();
-        this.maxLength = params.getPayloadMaxLength();
+        this(params.getPayloadMinLength(), params.getPayloadMaxLength(), params.getPayload(), new SplittableRandom());
+    }
+
+    private RandomStringGenerator(int minLength, int maxLength, Payload payload, SplittableRandom random) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.payload = payload;
+        this.random = random;
+        this.buffer = new byte[maxLength];
     }
 
     @Override
@@ -25,9 +36,29 @@ public class RandomStringGenerator implements Generator<String> {
 
     @Override
     public String next() {
-        byte[] b = new byte[random.nextInt(maxLength - minLength) + minLength];
-        random.nextBytes(b);
-        return new String(b);
+        int length = random.nextInt(minLength, maxLength);
+        payload.fill(random, buffer, length);
+        return new String(buffer, 0, length);
+    }
+
+    @Override
+    public Generator<String> split() {
+        return new RandomStringGenerator(minLength, maxLength, payload, random.split());
+    }
+
+    /**
+     * Fills the first {@code length} bytes of {@code bytes} with random values.
+     *
+     * @param random the source of randomness
+     * @param bytes  the array to fill
+     * @param length the number of bytes to fill
+     */
+    static void nextBytes(SplittableRandom random, byte[] bytes, int length) {
+        for (int i = 0; i < length; ) {
+            for (long rnd = random.nextLong(), n = Math.min(length - i, Long.BYTES); n-- > 0; rnd >>= Byte.SIZE) {
+                bytes[i++] = (byte) rnd;
+            }
+        }
     }
 
     @Override
@@ -44,4 +75,9 @@ public class RandomStringGenerator implements Generator<String> {
     public Function<String, byte[]> getSerializer() {
         return String::getBytes;
     }
+
+    @Override
+    public BufferSerializer<String> getBufferSerializer() {
+        return StringBufferSerializer.INSTANCE;
+    }
 }
@@ -0,0 +1,37 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+/**
+ * The workload executed by reader threads.
+ */
+public enum ReaderMode {
+
+    /**
+     * Iterate over all events of the store, reopening the iterator when reaching its end.
+     */
+    SCAN,
+
+    /**
+     * Follow the store while it is being written to, blocking for new events. Additionally reports the latency from
+     * persisting an event to a reader seeing it. Readers stop after the events written during the run, so they read
+     * fewer than {@link Params#getReadsPerThread()} events if fewer are written.
+     */
+    TAIL,
+
+    /**
+     * Look up randomly chosen events by their ID in the primary index of the store (see {@link Params#getIdIndex()}).
+     */
+    LOOKUP,
+
+    /**
+     * Retrieve all events of randomly chosen nodes, either through the node index of the store (see
+     * {@link Params#getNodeIndex()}) or by scanning all events.
+     */
+    NODE_QUERY,
+
+    /**
+     * Retrieve all events of randomly chosen time ranges (see {@link Params#getRangeSelectivity()}), either skipping
+     * the events outside of the range with the time index of the store (see {@link Params#getTimeIndex()}) or by
+     * scanning all events.
+     */
+    RANGE_QUERY
+}
@@ -14,9 +14,24 @@ public interface RunStats<T> {
 
     public static enum Field {
 
+        BACKEND,
         CLASS,
+        READER_MODE,
         READER_THREAD_COUNT,
         WRITER_THREAD_COUNT,
+        STORE_SHARING,
+        WRITER_TARGET_RATE,
+        PREGENERATED,
+        BATCH_SIZE,
+        DURABILITY,
+        COMPRESSION,
+        REOPEN_ITEMS,
+        ID_INDEX,
+        NODE_INDEX,
+        TIME_INDEX,
+        RANGE_SELECTIVITY,
+        SIMULATED_NODES,
+        SIMULATED_NODE_RATE,
         TOTAL_READ_DURATION,
         TOTAL_WRITE_DURATION,
         TOTAL_READING_OPS,
@@ -24,7 +39,50 @@ public interface RunStats<T> {
         AVG_DURATION_PER_READING_OP_NS,
         AVG_DURATION_PER_WRITING_OP_NS,
         AVG_READING_OPS_PER_S,
-        AVG_WRITING_OPS_PER_S;
+        AVG_WRITING_OPS_PER_S,
+        READ_LATENCY_P50_NS,
+        READ_LATENCY_P90_NS,
+        READ_LATENCY_P99_NS,
+        READ_LATENCY_P999_NS,
+        READ_LATENCY_MAX_NS,
+        WRITE_LATENCY_P50_NS,
+        WRITE_LATENCY_P90_NS,
+        WRITE_LATENCY_P99_NS,
+        WRITE_LATENCY_P999_NS,
+        WRITE_LATENCY_MAX_NS,
+        BATCH_LATENCY_P50_NS,
+        BATCH_LATENCY_P99_NS,
+        BATCH_LATENCY_MAX_NS,
+        END_TO_END_LATENCY_P50_NS,
+        END_TO_END_LATENCY_P99_NS,
+        END_TO_END_LATENCY_P999_NS,
+        END_TO_END_LATENCY_MAX_NS,
+        READ_ALLOCATED_BYTES_PER_OP,
+        WRITE_ALLOCATED_BYTES_PER_OP,
+        GC_COUNT,
+        GC_TIME_MS,
+        READ_CPU_NS_PER_OP,
+        WRITE_CPU_NS_PER_OP,
+        READ_BLOCKED_FRACTION,
+        WRITE_BLOCKED_FRACTION,
+        READ_WAITED_FRACTION,
+        WRITE_WAITED_FRACTION,
+        SYNC_COUNT,
+        SYNC_LATENCY_P50_NS,
+        SYNC_LATENCY_P99_NS,
+        SYNC_LATENCY_MAX_NS,
+        COMPRESSION_RATIO,
+        WRITE_MB_PER_S,
+        BYTES_ON_DISK,
+        BYTES_ON_DISK_PER_EVENT,
+        BYTES_USED,
+        BYTES_USED_PER_EVENT,
+        IO_BYTES_WRITTEN_PER_EVENT,
+        IO_BYTES_READ,
+        REOPEN_OPEN_NS,
+        REOPEN_FIRST_READ_NS,
+        REOPEN_FIRST_APPEND_NS,
+        INDEX_BYTES_PER_EVENT;
 
         public static String[] names() {
             Field[] fields = values();
@@ -36,6 +94,14 @@ public interface RunStats<T> {
         }
     }
 
+    /**
+     * Returns the name of the backend that persisted and read the items.
+     *
+     * @return the backend name
+     * @see Backend#getName()
+     */
+    public String getBackend();
+
     /**
      * Returns the class of items that were persisted and read.
      *
@@ -89,6 +155,131 @@ public interface RunStats<T> {
      */
     public double getAvgReadingOpsPer(ChronoUnit unit);
 
+    /**
+     * Returns the latency of a single reading operation at the given percentile, merged over all reader threads.
+     *
+     * @param percentile the percentile, e.g., 99.9
+     * @return the latency in nanoseconds
+     */
+    public long getReadLatencyAtPercentile(double percentile);
+
+    /**
+     * Returns the latency of a single writing operation at the given percentile, merged over all writer threads.
+     *
+     * @param percentile the percentile, e.g., 99.9
+     * @return the latency in nanoseconds
+     */
+    public long getWriteLatencyAtPercentile(double percentile);
+
+    /**
+     * Returns the maximum latency of a single reading operation over all reader threads.
+     *
+     * @return the latency in nanoseconds
+     */
+    public long getMaxReadLatency();
+
+    /**
+     * Returns the maximum latency of a single writing operation over all writer threads.
+     *
+     * @return the latency in nanoseconds
+     */
+    public long getMaxWriteLatency();
+
+    /**
+     * Returns the latency of writing a batch at the given percentile, merged over all writer threads.
+     *
+     * @param percentile the percentile, e.g., 99.9
+     * @return the latency in nanoseconds, 0 if items were not written in batches
+     */
+    public long getBatchLatencyAtPercentile(double percentile);
+
+    /**
+     * Returns the maximum latency of writing a batch over all writer threads.
+     *
+     * @return the latency in nanoseconds, 0 if items were not written in batches
+     */
+    public long getMaxBatchLatency();
+
+    /**
+     * Returns the latency from handing an item to the store until a tailing reader saw it at the given percentile,
+     * merged over all reader threads.
+     *
+     * @param percentile the percentile, e.g., 99.9
+     * @return the latency in nanoseconds, 0 if readers did not tail the stores
+     */
+    public long getEndToEndLatencyAtPercentile(double percentile);
+
+    /**
+     * Returns the maximum latency from handing an item to the store until a tailing reader saw it.
+     *
+     * @return the latency in nanoseconds, 0 if readers did not tail the stores
+     */
+    public long getMaxEndToEndLatency();
+
+    /**
+     * Returns the number of bytes allocated by all reader threads divided by the number of items read.
+     *
+     * @return the allocated bytes per reading operation
+     */
+    public double getAllocatedBytesPerRead();
+
+    /**
+     * Returns the number of bytes allocated by all writer threads divided by the number of items written.
+     *
+     * @return the allocated bytes per writing operation
+     */
+    public double getAllocatedBytesPerWrite();
+
+    /**
+     * Returns the CPU time consumed by all reader threads divided by the number of items read.
+     *
+     * @return the CPU time per reading operation in nanoseconds
+     */
+    public double getCpuNanosPerRead();
+
+    /**
+     * Returns the CPU time consumed by all writer threads divided by the number of items written.
+     *
+     * @return the CPU time per writing operation in nanoseconds
+     */
+    public double getCpuNanosPerWrite();
+
+    /**
+     * Returns the fraction of the total read duration that reader threads spent blocked on entering monitors.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getBlockedFractionOfReads();
+
+    /**
+     * Returns the fraction of the total write duration that writer threads spent blocked on entering monitors.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getBlockedFractionOfWrites();
+
+    /**
+     * Returns the fraction of the total read duration that reader threads spent waiting or parked.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getWaitedFractionOfReads();
+
+    /**
+     * Returns the fraction of the total write duration that writer threads spent waiting or parked.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getWaitedFractionOfWrites();
+
+    /**
+     * Returns the number and the accumulated duration of garbage collection pauses while readers and writers were
+     * running.
+     *
+     * @return the garbage collections during the run
+     */
+    public GarbageCollectionStats getGarbageCollections();
+
     /**
      * The number of items that have been read in total by all reader threads in this run.
      *
@@ -103,6 +294,13 @@ public interface RunStats<T> {
      */
     public BigInteger getWriteAmountTotal();
 
+    /**
+     * The workload the reader threads executed.
+     *
+     * @return the reader mode
+     */
+    public ReaderMode getReaderMode();
+
     /**
      * The number of parallel reader threads that were active during the run.
      *
@@ -117,6 +315,215 @@ public interface RunStats<T> {
      */
     public int getWriterCount();
 
+    /**
+     * How writer threads were assigned to stores.
+     *
+     * @return the store sharing
+     */
+    public StoreSharing getStoreSharing();
+
+    /**
+     * The number of items per second each writer thread was scheduled to persist, or 0 if writers persisted as fast as
+     * possible.
+     *
+     * @return the target rate per writer
+     */
+    public long getWriterTargetRate();
+
+    /**
+     * Whether the items were generated before the run and replayed by the writers ({@code true}) or generated inline
+     * during the run ({@code false}).
+     *
+     * @return {@code true} if items were pre-generated
+     */
+    public boolean isPregenerated();
+
+    /**
+     * The number of items each writer thread persisted as one unit.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize();
+
+    /**
+     * When the stores forced appended items to disk.
+     *
+     * @return the durability policy
+     */
+    public Durability getDurability();
+
+    /**
+     * How the payload of items was compressed before it was stored.
+     *
+     * @return the compression
+     */
+    public Compression getCompression();
+
+    /**
+     * Returns the number of items the stores held when they were reopened at the start of the run.
+     *
+     * @return the number of items, 0 if the stores were created empty
+     */
+    public long getReopenItems();
+
+    /**
+     * Whether the stores maintained an index from the IDs of items to their records.
+     *
+     * @return {@code true} if the stores maintained an ID index
+     */
+    public boolean hasIdIndex();
+
+    /**
+     * Whether the stores maintained an index from node URNs to the records of the nodes.
+     *
+     * @return {@code true} if the stores maintained a node index
+     */
+    public boolean hasNodeIndex();
+
+    /**
+     * Whether the stores maintained the minimum and maximum timestamps of items per segment and block of records.
+     *
+     * @return {@code true} if the stores maintained a time index
+     */
+    public boolean hasTimeIndex();
+
+    /**
+     * Returns the fraction of the time span of the stored items covered by the ranges of range queries.
+     *
+     * @return the selectivity of range queries
+     */
+    public double getRangeSelectivity();
+
+    /**
+     * Returns the number of simulated sensor nodes carried by the writer threads.
+     *
+     * @return the number of simulated nodes, 0 if writer threads wrote on their own behalf
+     */
+    public int getSimulatedNodes();
+
+    /**
+     * Returns the number of items written per second and simulated node.
+     *
+     * @return the rate of every simulated node
+     */
+    public double getSimulatedNodeRate();
+
+    /**
+     * Returns how often the stores forced appended items to disk.
+     *
+     * @return the number of syncs
+     */
+    public long getSyncCount();
+
+    /**
+     * Returns the duration of forcing appended items to disk at the given percentile over all syncs.
+     *
+     * @param percentile the percentile, e.g., 99.9
+     * @return the sync latency in nanoseconds, 0 if there were no syncs
+     */
+    public long getSyncLatencyAtPercentile(double percentile);
+
+    /**
+     * Returns the longest duration of forcing appended items to disk.
+     *
+     * @return the maximum sync latency in nanoseconds, 0 if there were no syncs
+     */
+    public long getMaxSyncLatency();
+
+    /**
+     * Returns the number of serialized payload bytes divided by the number of payload bytes handed to the stores.
+     *
+     * @return the compression ratio, 1 if payloads were not compressed or not counted by the backend
+     */
+    public double getCompressionRatio();
+
+    /**
+     * Returns the number of (possibly compressed) payload megabytes (10^6 bytes) handed to the stores per second, i.e.,
+     * {@link #getAvgWritingOpsPer(java.time.temporal.ChronoUnit)} times the average payload size.
+     *
+     * @return the write bandwidth in MB/s, 0 if the backend does not count payload bytes
+     */
+    public double getWriteMegabytesPerSecond();
+
+    /**
+     * Returns the apparent size of all files of the stores after the writers and readers completed, i.e., including
+     * indexes and pre-allocated space. Stores that map files of a fixed size (like the mapped log and Chronicle) report
+     * the full size of every file they started, see {@link #getBytesUsed()} for the space actually holding data. For
+     * reopened stores only the growth during the run is counted, not the size of the store when it was reopened.
+     *
+     * @return the bytes on disk, 0 if the backend does not report its files
+     */
+    public long getBytesOnDisk();
+
+    /**
+     * Returns {@link #getBytesOnDisk()} divided by the number of persisted items.
+     *
+     * @return the bytes on disk per item, 0 if no items were persisted
+     */
+    public double getBytesOnDiskPerEvent();
+
+    /**
+     * Returns the bytes of the files of the stores that hold data, as reported by backends that pre-allocate their
+     * files. For other backends this is {@link #getBytesOnDisk()}. For reopened stores only the growth during the run
+     * is counted.
+     *
+     * @return the used bytes, 0 if the backend does not report its files
+     */
+    public long getBytesUsed();
+
+    /**
+     * Returns {@link #getBytesUsed()} divided by the number of persisted items.
+     *
+     * @return the used bytes per item, 0 if no items were persisted
+     */
+    public double getBytesUsedPerEvent();
+
+    /**
+     * Returns the I/O of this process from the start of the first worker until all stores were closed.
+     *
+     * @return the I/O during the run
+     */
+    public IoStats getIo();
+
+    /**
+     * Returns the bytes this process sent to the storage layer during the run divided by the number of persisted items.
+     * Compared with the size of the payloads this shows the write amplification of a store.
+     *
+     * @return the written bytes per item, 0 if no items were persisted or the I/O counters are not available
+     */
+    public double getIoBytesWrittenPerEvent();
+
+    /**
+     * Returns how long opening an existing store took, i.e., building it on the existing path. The slowest of all
+     * stores is reported.
+     *
+     * @return the duration in nanoseconds, 0 if no stores were reopened
+     */
+    public long getReopenOpenNanos();
+
+    /**
+     * Returns how long reading the first item of a reopened store took after opening it. The slowest of all stores is
+     * reported.
+     *
+     * @return the duration in nanoseconds, 0 if no stores were reopened
+     */
+    public long getReopenFirstReadNanos();
+
+    /**
+     * Returns how long appending (and flushing) the first item to a reopened store took after reading its first item.
+     * The slowest of all stores is reported.
+     *
+     * @return the duration in nanoseconds, 0 if no stores were reopened
+     */
+    public long getReopenFirstAppendNanos();
+
+    /**
+     * Returns the memory footprint of the indexes of all stores divided by the number of indexed items.
+     *
+     * @return the index bytes per item, 0 if the stores were not indexed
+     */
+    public double getIndexBytesPerEvent();
+
     /**
      * Creates a CSV (comma-separated value) String of the values
      *
@@ -158,12 +565,42 @@ public interface RunStats<T> {
 
     default public String get(Field field) {
         switch (field) {
+            case BACKEND:
+                return getBackend();
             case CLASS:
                 return getItemClass().getCanonicalName();
+            case READER_MODE:
+                return getReaderMode().name();
             case READER_THREAD_COUNT:
                 return String.valueOf(getReaderCount());
             case WRITER_THREAD_COUNT:
                 return String.valueOf(getWriterCount());
+            case STORE_SHARING:
+                return getStoreSharing().name();
+            case WRITER_TARGET_RATE:
+                return String.valueOf(getWriterTargetRate());
+            case PREGENERATED:
+                return String.valueOf(isPregenerated());
+            case BATCH_SIZE:
+                return String.valueOf(getBatchSize());
+            case DURABILITY:
+                return getDurability().name();
+            case COMPRESSION:
+                return getCompression().name();
+            case REOPEN_ITEMS:
+                return String.valueOf(getReopenItems());
+            case ID_INDEX:
+                return String.valueOf(hasIdIndex());
+            case NODE_INDEX:
+                return String.valueOf(hasNodeIndex());
+            case TIME_INDEX:
+                return String.valueOf(hasTimeIndex());
+            case RANGE_SELECTIVITY:
+                return String.valueOf(getRangeSelectivity());
+            case SIMULATED_NODES:
+                return String.valueOf(getSimulatedNodes());
+            case SIMULATED_NODE_RATE:
+                return String.valueOf(getSimulatedNodeRate());
             case TOTAL_READ_DURATION:
                 return getTotalReadDuration().toString();
             case TOTAL_WRITE_DURATION:
@@ -180,6 +617,92 @@ public interface RunStats<T> {
                 return String.valueOf(getAvgReadingOpsPer(ChronoUnit.SECONDS));
             case AVG_WRITING_OPS_PER_S:
                 return String.valueOf(getAvgWritingOpsPer(ChronoUnit.SECONDS));
+            case READ_LATENCY_P50_NS:
+                return String.valueOf(getReadLatencyAtPercentile(50));
+            case READ_LATENCY_P90_NS:
+                return String.valueOf(getReadLatencyAtPercentile(90));
+            case READ_LATENCY_P99_NS:
+                return String.valueOf(getReadLatencyAtPercentile(99));
+            case READ_LATENCY_P999_NS:
+                return String.valueOf(getReadLatencyAtPercentile(99.9));
+            case READ_LATENCY_MAX_NS:
+                return String.valueOf(getMaxReadLatency());
+            case WRITE_LATENCY_P50_NS:
+                return String.valueOf(getWriteLatencyAtPercentile(50));
+            case WRITE_LATENCY_P90_NS:
+                return String.valueOf(getWriteLatencyAtPercentile(90));
+            case WRITE_LATENCY_P99_NS:
+                return String.valueOf(getWriteLatencyAtPercentile(99));
+            case WRITE_LATENCY_P999_NS:
+                return String.valueOf(getWriteLatencyAtPercentile(99.9));
+            case WRITE_LATENCY_MAX_NS:
+                return String.valueOf(getMaxWriteLatency());
+            case BATCH_LATENCY_P50_NS:
+                return String.valueOf(getBatchLatencyAtPercentile(50));
+            case BATCH_LATENCY_P99_NS:
+                return String.valueOf(getBatchLatencyAtPercentile(99));
+            case BATCH_LATENCY_MAX_NS:
+                return String.valueOf(getMaxBatchLatency());
+            case END_TO_END_LATENCY_P50_NS:
+                return String.valueOf(getEndToEndLatencyAtPercentile(50));
+            case END_TO_END_LATENCY_P99_NS:
+                return String.valueOf(getEndToEndLatencyAtPercentile(99));
+            case END_TO_END_LATENCY_P999_NS:
+                return String.valueOf(getEndToEndLatencyAtPercentile(99.9));
+            case END_TO_END_LATENCY_MAX_NS:
+                return String.valueOf(getMaxEndToEndLatency());
+            case READ_ALLOCATED_BYTES_PER_OP:
+                return String.valueOf(getAllocatedBytesPerRead());
+            case WRITE_ALLOCATED_BYTES_PER_OP:
+                return String.valueOf(getAllocatedBytesPerWrite());
+            case GC_COUNT:
+                return String.valueOf(getGarbageCollections().getCount());
+            case GC_TIME_MS:
+                return String.valueOf(getGarbageCollections().getTimeMillis());
+            case READ_CPU_NS_PER_OP:
+                return String.valueOf(getCpuNanosPerRead());
+            case WRITE_CPU_NS_PER_OP:
+                return String.valueOf(getCpuNanosPerWrite());
+            case READ_BLOCKED_FRACTION:
+                return String.valueOf(getBlockedFractionOfReads());
+            case WRITE_BLOCKED_FRACTION:
+                return String.valueOf(getBlockedFractionOfWrites());
+            case READ_WAITED_FRACTION:
+                return String.valueOf(getWaitedFractionOfReads());
+            case WRITE_WAITED_FRACTION:
+                return String.valueOf(getWaitedFractionOfWrites());
+            case SYNC_COUNT:
+                return String.valueOf(getSyncCount());
+            case SYNC_LATENCY_P50_NS:
+                return String.valueOf(getSyncLatencyAtPercentile(50));
+            case SYNC_LATENCY_P99_NS:
+                return String.valueOf(getSyncLatencyAtPercentile(99));
+            case SYNC_LATENCY_MAX_NS:
+                return String.valueOf(getMaxSyncLatency());
+            case COMPRESSION_RATIO:
+                return String.valueOf(getCompressionRatio());
+            case WRITE_MB_PER_S:
+                return String.valueOf(getWriteMegabytesPerSecond());
+            case BYTES_ON_DISK:
+                return String.valueOf(getBytesOnDisk());
+            case BYTES_ON_DISK_PER_EVENT:
+                return String.valueOf(getBytesOnDiskPerEvent());
+            case BYTES_USED:
+                return String.valueOf(getBytesUsed());
+            case BYTES_USED_PER_EVENT:
+                return String.valueOf(getBytesUsedPerEvent());
+            case IO_BYTES_WRITTEN_PER_EVENT:
+                return String.valueOf(getIoBytesWrittenPerEvent());
+            case IO_BYTES_READ:
+                return String.valueOf(getIo().getReadBytes());
+            case REOPEN_OPEN_NS:
+                return String.valueOf(getReopenOpenNanos());
+            case REOPEN_FIRST_READ_NS:
+                return String.valueOf(getReopenFirstReadNanos());
+            case REOPEN_FIRST_APPEND_NS:
+                return String.valueOf(getReopenFirstAppendNanos());
+            case INDEX_BYTES_PER_EVENT:
+                return String.valueOf(getIndexBytesPerEvent());
             default:
                 throw new RuntimeException("Missing case branch for RunStats.Fields enum");
         }
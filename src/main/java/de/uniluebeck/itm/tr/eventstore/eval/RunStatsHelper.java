@@ -1,6 +1,7 @@
 package de.uniluebeck.itm.tr.eventstore.eval;
 
 import com.google.common.collect.ArrayTable;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Table;
 
 import java.util.Formatter;
@@ -14,6 +15,8 @@ import static com.google.common.collect.Maps.newHashMap;
 
 public abstract class RunStatsHelper {
 
+    public static final String CONFIGURATION = "CONFIGURATION";
+
     public static Table<Integer, RunStats.Field, String> toTable(List<RunStats> runStats) {
         Iterable<Integer> rowKeys = IntRangeIterator.createIterable(0, runStats.size());
         Iterable<RunStats.Field> colKeys = newArrayList(RunStats.Field.values());
@@ -28,14 +31,57 @@ public abstract class RunStatsHelper {
     }
 
     public static String toTableString(List<RunStats> stats) {
+        return toTableString(toTable(stats));
+    }
+
+    /**
+     * Renders the stats of a parameter sweep as one table whose first column is the configuration key of each run.
+     *
+     * @param stats the stats of all runs, keyed by configuration
+     * @return the table
+     */
+    public static String toTableString(ListMultimap<String, RunStats> stats) {
+        List<String> colKeys = newArrayList(CONFIGURATION);
+        for (RunStats.Field field : RunStats.Field.values()) {
+            colKeys.add(field.name());
+        }
+        Iterable<Integer> rowKeys = IntRangeIterator.createIterable(0, stats.size());
+        ArrayTable<Integer, String, String> table = ArrayTable.<Integer, String, String>create(rowKeys, colKeys);
+        int rowKey = 0;
+        for (Map.Entry<String, RunStats> entry : stats.entries()) {
+            table.put(rowKey, CONFIGURATION, entry.getKey());
+            for (RunStats.Field field : RunStats.Field.values()) {
+                table.put(rowKey, field.name(), entry.getValue().get(field));
+            }
+            rowKey++;
+        }
+        return toTableString(table);
+    }
+
+    /**
+     * Renders the stats of a parameter sweep as CSV whose first column is the configuration key of each run.
+     *
+     * @param stats the stats of all runs, keyed by configuration
+     * @return the CSV lines including the header line
+     */
+    public static List<String> toCsv(ListMultimap<String, RunStats> stats) {
+        List<String> lines = newArrayList();
+        if (stats.isEmpty()) {
+            return lines;
+        }
+        lines.add(CONFIGURATION + "," + stats.values().iterator().next().toCsvHeaders());
+        stats.entries().forEach(entry -> lines.add(entry.getKey() + "," + entry.getValue().toCsv()));
+        return lines;
+    }
+
+    private static <C> String toTableString(Table<Integer, C, String> table) {
 
-        Table<Integer, RunStats.Field, String> table = toTable(stats);
-        Set<RunStats.Field> columnKeys = table.columnKeySet();
+        Set<C> columnKeys = table.columnKeySet();
         Set<Integer> rowKeys = table.rowKeySet();
-        Map<RunStats.Field, Integer> colWidths = newHashMap();
+        Map<C, Integer> colWidths = newHashMap();
 
         // calculate maximum column width
-        columnKeys.forEach((k) -> colWidths.put(k, k.name().length() + 2));
+        columnKeys.forEach((k) -> colWidths.put(k, k.toString().length() + 2));
         columnKeys.forEach((col) -> {
             rowKeys.forEach((row) -> {
                 int curWidth = table.get(row, col).length() + 2;
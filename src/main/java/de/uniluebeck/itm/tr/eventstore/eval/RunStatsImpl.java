@@ -3,6 +3,7 @@ package de.uniluebeck.itm.tr.eventstore.eval;
 import com.google.common.base.Joiner;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.*;
+import org.HdrHistogram.Histogram;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -11,6 +12,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 import java.util.stream.IntStream;
 
 import static com.google.common.collect.Lists.newArrayList;
@@ -28,9 +30,12 @@ class RunStatsImpl<T> implements RunStats<T> {
 
         Stopwatch stopwatch;
 
-        public Measurement(long amount, Stopwatch stopwatch) {
+        WorkerStats workerStats;
+
+        public Measurement(long amount, WorkerStats workerStats) {
             this.amount = amount;
-            this.stopwatch = stopwatch;
+            this.stopwatch = workerStats.getStopwatch();
+            this.workerStats = workerStats;
         }
     }
 
@@ -41,12 +46,49 @@ class RunStatsImpl<T> implements RunStats<T> {
     private final List<Measurement> reads = newLinkedList();
     private final List<Measurement> writes = newLinkedList();
 
+    private volatile GarbageCollectionStats garbageCollections = GarbageCollectionStats.NONE;
+
+    private final Histogram syncLatencies = WorkerStats.createHistogram();
+
+    private volatile CompressionStage<T> compressionStage;
+
+    private volatile long bytesOnDisk;
+
+    /**
+     * The used bytes reported by the stores, -1 if no store reported them.
+     */
+    private long bytesUsed = -1;
+
+    /**
+     * The bytes the reopened stores held at the start of the run, which don't count as bytes of the run.
+     */
+    private long reopenedBytesOnDisk;
+
+    private long reopenedBytesUsed;
+
+    private volatile IoStats io = IoStats.NONE;
+
+    private long reopenOpenNanos;
+
+    private long reopenFirstReadNanos;
+
+    private long reopenFirstAppendNanos;
+
+    private long indexBytes;
+
+    private long indexedItems;
+
     public RunStatsImpl(int runNr, Params params, Generator<T> generator) {
         this.params = params;
         this.runNr = runNr;
         this.generator = generator;
     }
 
+    @Override
+    public String getBackend() {
+        return params.getBackend();
+    }
+
     @Override
     public Class<T> getItemClass() {
         return generator.getGeneratedClass();
@@ -108,16 +150,360 @@ class RunStatsImpl<T> implements RunStats<T> {
         return params.getWriterThreadCnt();
     }
 
-    void addWritten(long amount, Stopwatch stopwatch) {
-        writes.add(new Measurement(amount, stopwatch));
+    @Override
+    public long getReadLatencyAtPercentile(double percentile) {
+        synchronized (reads) {
+            return mergeLatencies(reads).getValueAtPercentile(percentile);
+        }
+    }
+
+    @Override
+    public long getWriteLatencyAtPercentile(double percentile) {
+        return mergeLatencies(writes).getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getMaxReadLatency() {
+        synchronized (reads) {
+            return mergeLatencies(reads).getMaxValue();
+        }
+    }
+
+    @Override
+    public long getMaxWriteLatency() {
+        return mergeLatencies(writes).getMaxValue();
+    }
+
+    @Override
+    public StoreSharing getStoreSharing() {
+        return params.getStoreSharing();
+    }
+
+    @Override
+    public long getWriterTargetRate() {
+        return params.getWriterTargetRate();
+    }
+
+    @Override
+    public long getBatchLatencyAtPercentile(double percentile) {
+        return mergeBatchLatencies(writes).getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getMaxBatchLatency() {
+        return mergeBatchLatencies(writes).getMaxValue();
+    }
+
+    @Override
+    public long getEndToEndLatencyAtPercentile(double percentile) {
+        synchronized (reads) {
+            return mergeEndToEndLatencies(reads).getValueAtPercentile(percentile);
+        }
+    }
+
+    @Override
+    public long getMaxEndToEndLatency() {
+        synchronized (reads) {
+            return mergeEndToEndLatencies(reads).getMaxValue();
+        }
+    }
+
+    @Override
+    public double getAllocatedBytesPerRead() {
+        synchronized (reads) {
+            return calculateAllocatedBytesPerItemOperation(reads);
+        }
+    }
+
+    @Override
+    public double getAllocatedBytesPerWrite() {
+        return calculateAllocatedBytesPerItemOperation(writes);
+    }
+
+    @Override
+    public double getCpuNanosPerRead() {
+        synchronized (reads) {
+            return calculatePerItemOperation(reads, WorkerStats::getCpuNanos);
+        }
+    }
+
+    @Override
+    public double getCpuNanosPerWrite() {
+        return calculatePerItemOperation(writes, WorkerStats::getCpuNanos);
+    }
+
+    @Override
+    public double getBlockedFractionOfReads() {
+        synchronized (reads) {
+            return calculateFractionOfDuration(reads, WorkerStats::getBlockedMillis);
+        }
+    }
+
+    @Override
+    public double getBlockedFractionOfWrites() {
+        return calculateFractionOfDuration(writes, WorkerStats::getBlockedMillis);
+    }
+
+    @Override
+    public double getWaitedFractionOfReads() {
+        synchronized (reads) {
+            return calculateFractionOfDuration(reads, WorkerStats::getWaitedMillis);
+        }
+    }
+
+    @Override
+    public double getWaitedFractionOfWrites() {
+        return calculateFractionOfDuration(writes, WorkerStats::getWaitedMillis);
+    }
+
+    @Override
+    public GarbageCollectionStats getGarbageCollections() {
+        return garbageCollections;
+    }
+
+    void setGarbageCollections(GarbageCollectionStats garbageCollections) {
+        this.garbageCollections = garbageCollections;
+    }
+
+    @Override
+    public ReaderMode getReaderMode() {
+        return params.getReaderMode();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return params.getBatchSize();
+    }
+
+    @Override
+    public Durability getDurability() {
+        return params.getDurability();
+    }
+
+    @Override
+    public long getSyncCount() {
+        synchronized (syncLatencies) {
+            return syncLatencies.getTotalCount();
+        }
+    }
+
+    @Override
+    public long getSyncLatencyAtPercentile(double percentile) {
+        synchronized (syncLatencies) {
+            return syncLatencies.getValueAtPercentile(percentile);
+        }
+    }
+
+    @Override
+    public long getMaxSyncLatency() {
+        synchronized (syncLatencies) {
+            return syncLatencies.getMaxValue();
+        }
+    }
+
+    void recordSyncLatency(long nanos) {
+        synchronized (syncLatencies) {
+            syncLatencies.recordValue(WorkerStats.clamp(nanos));
+        }
+    }
+
+    @Override
+    public Compression getCompression() {
+        return params.getCompression();
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        CompressionStage<T> stage = compressionStage;
+        if (stage == null || stage.getCompressedBytes() == 0) {
+            return 1;
+        }
+        return (double) stage.getUncompressedBytes() / stage.getCompressedBytes();
+    }
+
+    @Override
+    public double getWriteMegabytesPerSecond() {
+        CompressionStage<T> stage = compressionStage;
+        BigInteger writes = getWriteAmountTotal();
+        if (stage == null || writes.equals(BigInteger.ZERO)) {
+            return 0;
+        }
+        double bytesPerWrite = (double) stage.getCompressedBytes() / writes.doubleValue();
+        return getAvgWritingOpsPer(ChronoUnit.SECONDS) * bytesPerWrite / 1_000_000;
+    }
+
+    void setCompressionStage(CompressionStage<T> compressionStage) {
+        this.compressionStage = compressionStage;
+    }
+
+    @Override
+    public long getBytesOnDisk() {
+        return bytesOnDisk;
+    }
+
+    synchronized void setBytesOnDisk(long bytesOnDisk) {
+        this.bytesOnDisk = bytesOnDisk - reopenedBytesOnDisk;
+    }
+
+    /**
+     * Records the size of a reopened store at the start of the run.
+     *
+     * @param onDisk the apparent size of its files
+     * @param used   the used bytes of its files, -1 if the store doesn't report them
+     */
+    synchronized void addReopenedBytes(long onDisk, long used) {
+        reopenedBytesOnDisk += onDisk;
+        reopenedBytesUsed += Math.max(0, used);
+    }
+
+    @Override
+    public double getBytesOnDiskPerEvent() {
+        return calculatePerWrittenItem(bytesOnDisk);
+    }
+
+    @Override
+    public synchronized long getBytesUsed() {
+        return bytesUsed < 0 ? bytesOnDisk : bytesUsed - reopenedBytesUsed;
+    }
+
+    synchronized void addBytesUsed(long bytes) {
+        bytesUsed = Math.max(0, bytesUsed) + bytes;
+    }
+
+    @Override
+    public double getBytesUsedPerEvent() {
+        return calculatePerWrittenItem(getBytesUsed());
+    }
+
+    @Override
+    public IoStats getIo() {
+        return io;
+    }
+
+    void setIo(IoStats io) {
+        this.io = io;
+    }
+
+    @Override
+    public double getIoBytesWrittenPerEvent() {
+        return calculatePerWrittenItem(io.getWrittenBytes());
+    }
+
+    @Override
+    public long getReopenItems() {
+        return params.getReopenItems();
+    }
+
+    @Override
+    public boolean hasIdIndex() {
+        return params.getIdIndex();
+    }
+
+    @Override
+    public boolean hasNodeIndex() {
+        return params.getNodeIndex();
+    }
+
+    @Override
+    public boolean hasTimeIndex() {
+        return params.getTimeIndex();
+    }
+
+    @Override
+    public double getRangeSelectivity() {
+        return params.getRangeSelectivity();
+    }
+
+    @Override
+    public int getSimulatedNodes() {
+        return params.getSimulatedNodes();
+    }
+
+    @Override
+    public double getSimulatedNodeRate() {
+        return params.getSimulatedNodeRate();
+    }
+
+    @Override
+    public synchronized double getIndexBytesPerEvent() {
+        return indexedItems == 0 ? 0 : indexBytes / (double) indexedItems;
+    }
+
+    synchronized void addIndex(long bytes, long items) {
+        indexBytes += bytes;
+        indexedItems += items;
+    }
+
+    @Override
+    public synchronized long getReopenOpenNanos() {
+        return reopenOpenNanos;
+    }
+
+    @Override
+    public synchronized long getReopenFirstReadNanos() {
+        return reopenFirstReadNanos;
+    }
+
+    @Override
+    public synchronized long getReopenFirstAppendNanos() {
+        return reopenFirstAppendNanos;
+    }
+
+    synchronized void addReopen(long openNanos, long firstReadNanos, long firstAppendNanos) {
+        reopenOpenNanos = Math.max(reopenOpenNanos, openNanos);
+        reopenFirstReadNanos = Math.max(reopenFirstReadNanos, firstReadNanos);
+        reopenFirstAppendNanos = Math.max(reopenFirstAppendNanos, firstAppendNanos);
+    }
+
+    private double calculatePerWrittenItem(long bytes) {
+        BigInteger writes = getWriteAmountTotal();
+        return writes.equals(BigInteger.ZERO) ? 0 : bytes / writes.doubleValue();
+    }
+
+    @Override
+    public boolean isPregenerated() {
+        return params.getPregenerate();
+    }
+
+    void addWritten(long amount, WorkerStats workerStats) {
+        synchronized (writes) {
+            writes.add(new Measurement(amount, workerStats));
+        }
     }
 
-    void addRead(long amount, Stopwatch stopwatch) {
+    void addRead(long amount, WorkerStats workerStats) {
         synchronized (reads) {
-            reads.add(new Measurement(amount, stopwatch));
+            reads.add(new Measurement(amount, workerStats));
         }
     }
 
+    /**
+     * Returns the number of items all query readers found, see {@link WorkerStats#getItemsFound()}.
+     */
+    long getItemsFound() {
+        synchronized (reads) {
+            return reads.stream().mapToLong(m -> m.workerStats.getItemsFound()).sum();
+        }
+    }
+
+    private Histogram mergeLatencies(List<Measurement> measurements) {
+        Histogram merged = WorkerStats.createHistogram();
+        measurements.forEach(m -> merged.add(m.workerStats.getLatencies()));
+        return merged;
+    }
+
+    private Histogram mergeBatchLatencies(List<Measurement> measurements) {
+        Histogram merged = WorkerStats.createHistogram();
+        measurements.forEach(m -> merged.add(m.workerStats.getBatchLatencies()));
+        return merged;
+    }
+
+    private Histogram mergeEndToEndLatencies(List<Measurement> measurements) {
+        Histogram merged = WorkerStats.createHistogram();
+        measurements.forEach(m -> merged.add(m.workerStats.getEndToEndLatencies()));
+        return merged;
+    }
+
     private BigInteger sumUpAmounts(List<Measurement> measurements) {
         return measurements.stream()
                 .map(m -> BigInteger.valueOf(m.amount))
@@ -146,6 +532,28 @@ class RunStatsImpl<T> implements RunStats<T> {
         return movingAverage.getAverage() * unit.getDuration().toNanos();
     }
 
+    private double calculateAllocatedBytesPerItemOperation(List<Measurement> measurements) {
+        return calculatePerItemOperation(measurements, WorkerStats::getAllocatedBytes);
+    }
+
+    private double calculatePerItemOperation(List<Measurement> measurements, ToLongFunction<WorkerStats> value) {
+        BigInteger amount = sumUpAmounts(measurements);
+        if (amount.equals(BigInteger.ZERO)) {
+            return 0;
+        }
+        long total = measurements.stream().mapToLong(m -> value.applyAsLong(m.workerStats)).sum();
+        return total / amount.doubleValue();
+    }
+
+    private double calculateFractionOfDuration(List<Measurement> measurements, ToLongFunction<WorkerStats> millis) {
+        long totalMillis = sumUpDuration(measurements).toMillis();
+        if (totalMillis == 0) {
+            return 0;
+        }
+        long total = measurements.stream().mapToLong(m -> millis.applyAsLong(m.workerStats)).sum();
+        return (double) total / totalMillis;
+    }
+
     private Duration calculateAverageDurationPerItemOperation(List<Measurement> measurements) {
         BigInteger totalDurationNanos = BigInteger.valueOf(sumUpDuration(measurements).toNanos());
         BigInteger totalReads = sumUpAmounts(measurements);
@@ -159,9 +567,22 @@ class RunStatsImpl<T> implements RunStats<T> {
     public String toString() {
         String s = "";
         s += "================================== STATS FOR RUN " + runNr + " ==================================\n";
+        s += "Backend                         = " + getBackend() + "\n";
         s += "Item class                      = " + generator.getGeneratedClass() + "\n";
+        s += "Reader mode                     = " + getReaderMode() + "\n";
         s += "Reader count                    = " + getReaderCount() + "\n";
         s += "Writer count                    = " + getWriterCount() + "\n";
+        s += "Store sharing                   = " + getStoreSharing() + "\n";
+        s += "Writer target rate              = " + getWriterTargetRate() + " ops/s\n";
+        s += "Pre-generated items             = " + isPregenerated() + "\n";
+        s += "Batch size                      = " + getBatchSize() + "\n";
+        s += "Durability                      = " + getDurability() + "\n";
+        s += "Compression                     = " + getCompression() + "\n";
+        s += "Reopened store items            = " + getReopenItems() + "\n";
+        s += "ID / node / time index          = " + hasIdIndex() + " / " + hasNodeIndex() + " / " + hasTimeIndex()
+                + "\n";
+        s += "Range selectivity               = " + getRangeSelectivity() + "\n";
+        s += "Simulated nodes                 = " + getSimulatedNodes() + " at " + getSimulatedNodeRate() + " ops/s\n";
         s += "Total read  duration            = " + getTotalReadDuration().toMillis() + " ms\n";
         s += "Total write duration            = " + getTotalWriteDuration().toMillis() + " ms\n";
         s += "Total reading ops               = " + getReadAmountTotal() + "\n";
@@ -170,14 +591,63 @@ class RunStatsImpl<T> implements RunStats<T> {
         s += "Average duration per writing op = " + getAvgDurationForWrites().toNanos() + " ns\n";
         s += "Average reading ops per second  = " + getAvgReadingOpsPer(ChronoUnit.SECONDS) + "\n";
         s += "Average writing ops per second  = " + getAvgWritingOpsPer(ChronoUnit.SECONDS) + "\n";
+        s += "Read  latency p50/p99/p99.9/max = " + getReadLatencyAtPercentile(50) + " / "
+                + getReadLatencyAtPercentile(99) + " / " + getReadLatencyAtPercentile(99.9) + " / "
+                + getMaxReadLatency() + " ns\n";
+        s += "Write latency p50/p99/p99.9/max = " + getWriteLatencyAtPercentile(50) + " / "
+                + getWriteLatencyAtPercentile(99) + " / " + getWriteLatencyAtPercentile(99.9) + " / "
+                + getMaxWriteLatency() + " ns\n";
+        s += "Batch latency p50/p99/max       = " + getBatchLatencyAtPercentile(50) + " / "
+                + getBatchLatencyAtPercentile(99) + " / " + getMaxBatchLatency() + " ns\n";
+        s += "End-to-end p50/p99/p99.9/max    = " + getEndToEndLatencyAtPercentile(50) + " / "
+                + getEndToEndLatencyAtPercentile(99) + " / " + getEndToEndLatencyAtPercentile(99.9) + " / "
+                + getMaxEndToEndLatency() + " ns\n";
+        s += "Allocated bytes per reading op  = " + getAllocatedBytesPerRead() + "\n";
+        s += "Allocated bytes per writing op  = " + getAllocatedBytesPerWrite() + "\n";
+        s += "Garbage collections             = " + getGarbageCollections().getCount() + " ("
+                + getGarbageCollections().getTimeMillis() + " ms)\n";
+        s += "CPU time per reading op         = " + getCpuNanosPerRead() + " ns\n";
+        s += "CPU time per writing op         = " + getCpuNanosPerWrite() + " ns\n";
+        s += "Readers blocked / waiting       = " + getBlockedFractionOfReads() + " / " + getWaitedFractionOfReads() + "\n";
+        s += "Writers blocked / waiting       = " + getBlockedFractionOfWrites() + " / " + getWaitedFractionOfWrites() + "\n";
+        s += "Syncs                           = " + getSyncCount() + "\n";
+        s += "Sync latency p50/p99/max        = " + getSyncLatencyAtPercentile(50) + " / "
+                + getSyncLatencyAtPercentile(99) + " / " + getMaxSyncLatency() + " ns\n";
+        s += "Compression ratio               = " + getCompressionRatio() + "\n";
+        s += "Write bandwidth                 = " + getWriteMegabytesPerSecond() + " MB/s\n";
+        s += "Bytes on disk                   = " + getBytesOnDisk() + " (" + getBytesOnDiskPerEvent()
+                + " per event)\n";
+        s += "Bytes used                      = " + getBytesUsed() + " (" + getBytesUsedPerEvent() + " per event)\n";
+        s += "I/O bytes written               = " + getIo().getWrittenBytes() + " (" + getIoBytesWrittenPerEvent()
+                + " per event, " + getIo().getWrittenChars() + " passed to write calls)\n";
+        s += "I/O bytes read                  = " + getIo().getReadBytes() + " (" + getIo().getReadChars()
+                + " passed to read calls)\n";
+        s += "Reopen / first read / append    = " + getReopenOpenNanos() + " / " + getReopenFirstReadNanos() + " / "
+                + getReopenFirstAppendNanos() + " ns\n";
+        s += "Index bytes per event           = " + getIndexBytesPerEvent() + "\n";
         s += "\n";
         return s;
     }
 
     public String toCsv() {
-        return Joiner.on(",").join(generator.getGeneratedClass().getCanonicalName(),
+        return Joiner.on(",").join(getBackend(),
+                generator.getGeneratedClass().getCanonicalName(),
+                getReaderMode(),
                 getReaderCount(),
                 getWriterCount(),
+                getStoreSharing(),
+                getWriterTargetRate(),
+                isPregenerated(),
+                getBatchSize(),
+                getDurability(),
+                getCompression(),
+                getReopenItems(),
+                hasIdIndex(),
+                hasNodeIndex(),
+                hasTimeIndex(),
+                getRangeSelectivity(),
+                getSimulatedNodes(),
+                getSimulatedNodeRate(),
                 getTotalReadDuration().toMillis(),
                 getTotalWriteDuration().toMillis(),
                 getReadAmountTotal(),
@@ -185,7 +655,50 @@ class RunStatsImpl<T> implements RunStats<T> {
                 getAvgDurationForReads().toNanos(),
                 getAvgDurationForWrites().toNanos(),
                 getAvgReadingOpsPer(ChronoUnit.SECONDS),
-                getAvgWritingOpsPer(ChronoUnit.SECONDS));
+                getAvgWritingOpsPer(ChronoUnit.SECONDS),
+                getReadLatencyAtPercentile(50),
+                getReadLatencyAtPercentile(90),
+                getReadLatencyAtPercentile(99),
+                getReadLatencyAtPercentile(99.9),
+                getMaxReadLatency(),
+                getWriteLatencyAtPercentile(50),
+                getWriteLatencyAtPercentile(90),
+                getWriteLatencyAtPercentile(99),
+                getWriteLatencyAtPercentile(99.9),
+                getMaxWriteLatency(),
+                getBatchLatencyAtPercentile(50),
+                getBatchLatencyAtPercentile(99),
+                getMaxBatchLatency(),
+                getEndToEndLatencyAtPercentile(50),
+                getEndToEndLatencyAtPercentile(99),
+                getEndToEndLatencyAtPercentile(99.9),
+                getMaxEndToEndLatency(),
+                getAllocatedBytesPerRead(),
+                getAllocatedBytesPerWrite(),
+                getGarbageCollections().getCount(),
+                getGarbageCollections().getTimeMillis(),
+                getCpuNanosPerRead(),
+                getCpuNanosPerWrite(),
+                getBlockedFractionOfReads(),
+                getBlockedFractionOfWrites(),
+                getWaitedFractionOfReads(),
+                getWaitedFractionOfWrites(),
+                getSyncCount(),
+                getSyncLatencyAtPercentile(50),
+                getSyncLatencyAtPercentile(99),
+                getMaxSyncLatency(),
+                getCompressionRatio(),
+                getWriteMegabytesPerSecond(),
+                getBytesOnDisk(),
+                getBytesOnDiskPerEvent(),
+                getBytesUsed(),
+                getBytesUsedPerEvent(),
+                getIoBytesWrittenPerEvent(),
+                getIo().getReadBytes(),
+                getReopenOpenNanos(),
+                getReopenFirstReadNanos(),
+                getReopenFirstAppendNanos(),
+                getIndexBytesPerEvent());
     }
 
     @Override
@@ -0,0 +1,24 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+/**
+ * How writer threads are assigned to stores.
+ */
+public enum StoreSharing {
+
+    /**
+     * Every writer thread writes to its own store.
+     */
+    PER_WRITER,
+
+    /**
+     * All writer threads write to one store, each calling the store directly while holding the monitor of the store,
+     * i.e., the lock is acquired once per append.
+     */
+    SHARED,
+
+    /**
+     * All writer threads write to one store through a {@link CombiningEventStore}, which lets one writer at a time
+     * append the pending events of all writers.
+     */
+    SHARED_COMBINING
+}
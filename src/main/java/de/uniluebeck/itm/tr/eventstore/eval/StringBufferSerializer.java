@@ -0,0 +1,67 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes strings as UTF-8 directly into the target buffer without an intermediate byte array. Strings are read from
+ * direct buffers through a per-thread scratch array, so that reading allocates nothing but the string itself.
+ */
+public class StringBufferSerializer implements BufferSerializer<String> {
+
+    public static final StringBufferSerializer INSTANCE = new StringBufferSerializer();
+
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[1024]);
+
+    private StringBufferSerializer() {
+    }
+
+    @Override
+    public void serialize(String item, ByteBuffer target) {
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            if (c < 0x80) {
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | (c >> 6)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < item.length()
+                    && Character.isLowSurrogate(item.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, item.charAt(++i));
+                target.put((byte) (0xF0 | (codePoint >> 18)));
+                target.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                target.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                target.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, encoded as '?' like String.getBytes(UTF_8) does
+                target.put((byte) '?');
+            } else {
+                target.put((byte) (0xE0 | (c >> 12)));
+                target.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    @Override
+    public String deserialize(ByteBuffer source) {
+        if (source.hasArray()) {
+            String s = new String(
+                    source.array(),
+                    source.arrayOffset() + source.position(),
+                    source.remaining(),
+                    StandardCharsets.UTF_8
+            );
+            source.position(source.limit());
+            return s;
+        }
+        int length = source.remaining();
+        byte[] bytes = scratch.get();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+            scratch.set(bytes);
+        }
+        source.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
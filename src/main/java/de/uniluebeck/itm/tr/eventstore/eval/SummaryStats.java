@@ -0,0 +1,123 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.util.Arrays;
+
+/**
+ * Descriptive statistics of one metric over the repeated runs of a configuration.
+ */
+public class SummaryStats {
+
+    /**
+     * Two-sided 95% quantiles of Student's t-distribution for 1 to 30 degrees of freedom.
+     */
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private static final double Z_95 = 1.960;
+
+    private final int n;
+
+    private final double mean;
+
+    private final double median;
+
+    private final double stdDev;
+
+    private final double ci95;
+
+    private SummaryStats(int n, double mean, double median, double stdDev, double ci95) {
+        this.n = n;
+        this.mean = mean;
+        this.median = median;
+        this.stdDev = stdDev;
+        this.ci95 = ci95;
+    }
+
+    public static SummaryStats of(double... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("At least one value is required");
+        }
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        int n = sorted.length;
+        double mean = Arrays.stream(sorted).sum() / n;
+        double median = n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+
+        if (n < 2) {
+            return new SummaryStats(n, mean, median, 0, 0);
+        }
+
+        double squares = Arrays.stream(sorted).map(v -> (v - mean) * (v - mean)).sum();
+        double stdDev = Math.sqrt(squares / (n - 1));
+        return new SummaryStats(n, mean, median, stdDev, t95(n - 1) * stdDev / Math.sqrt(n));
+    }
+
+    /**
+     * Returns the two-sided 95% quantile of Student's t-distribution.
+     *
+     * @param degreesOfFreedom the degrees of freedom, at least 1
+     * @return the quantile, approximated by the normal distribution for more than 30 degrees of freedom
+     */
+    static double t95(double degreesOfFreedom) {
+        int df = (int) Math.floor(degreesOfFreedom);
+        return df < 1 ? T_95[0] : df <= T_95.length ? T_95[df - 1] : Z_95;
+    }
+
+    /**
+     * Checks with Welch's t-test whether the mean of {@code this} differs significantly (at the 95% level) from the
+     * mean of {@code other}.
+     *
+     * @param other the stats to compare with
+     * @return {@code true} if the difference is significant, {@code false} if it is not or if one of both has less than
+     * two samples
+     */
+    public boolean differsSignificantlyFrom(SummaryStats other) {
+        if (n < 2 || other.n < 2) {
+            return false;
+        }
+        double v1 = stdDev * stdDev / n;
+        double v2 = other.stdDev * other.stdDev / other.n;
+        if (v1 + v2 == 0) {
+            return mean != other.mean;
+        }
+        double t = Math.abs(mean - other.mean) / Math.sqrt(v1 + v2);
+        double df = (v1 + v2) * (v1 + v2) / (v1 * v1 / (n - 1) + v2 * v2 / (other.n - 1));
+        return t > t95(df);
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public double getStdDev() {
+        return stdDev;
+    }
+
+    /**
+     * Returns the half-width of the 95% confidence interval of the mean, i.e., the interval is
+     * {@code [mean - ci95, mean + ci95]}.
+     *
+     * @return the half-width, 0 if there is only one sample
+     */
+    public double getCi95() {
+        return ci95;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f +- %.1f (median %.1f, stddev %.1f, n=%d)", mean, ci95, median, stdDev, n);
+    }
+}
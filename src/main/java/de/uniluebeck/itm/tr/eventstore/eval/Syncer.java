@@ -0,0 +1,182 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.Maps.newHashMap;
+
+/**
+ * Forces the items appended to a store to disk according to a {@link Durability} policy. Writers report every append
+ * call to {@link #appended(int)}, which syncs inline if a sync is due, so that the cost of syncing is part of the write
+ * latencies. Shared by all writers of a store.
+ */
+class Syncer implements Closeable {
+
+    /**
+     * Forces the data of a store to disk.
+     */
+    interface Target extends Closeable {
+
+        void sync() throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    private final Durability durability;
+
+    private final long intervalEvents;
+
+    private final long intervalNanos;
+
+    private final Target target;
+
+    private final LongConsumer syncLatencies;
+
+    private final AtomicLong appended = new AtomicLong();
+
+    /**
+     * The number of appended events that were synced, guarded by the monitor of this syncer.
+     */
+    private volatile long synced;
+
+    private volatile long lastSyncNanos = System.nanoTime();
+
+    Syncer(Durability durability, long intervalEvents, long intervalMillis, Target target, LongConsumer syncLatencies) {
+
+        if (durability == Durability.EVERY_N_EVENTS && intervalEvents < 1) {
+            throw new IllegalArgumentException("The durability interval must be at least one event!");
+        }
+
+        this.durability = durability;
+        this.intervalEvents = intervalEvents;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.target = target;
+        this.syncLatencies = syncLatencies;
+    }
+
+    /**
+     * Creates a target that syncs all files in {@code dir} (and its sub directories). Files created after the target
+     * are picked up on the next sync.
+     *
+     * @param dir the directory of a store
+     * @return the target
+     */
+    static Target forDirectory(Path dir) {
+        return new DirectoryTarget(dir);
+    }
+
+    /**
+     * Reports that {@code count} items were appended by one append call and syncs if that's due.
+     *
+     * @param count the number of items
+     * @throws IOException if syncing failed
+     */
+    void appended(int count) throws IOException {
+        if (durability == Durability.NONE) {
+            return;
+        }
+        long appendedNow = appended.addAndGet(count);
+        if (isDue(appendedNow)) {
+            synchronized (this) {
+                if (isDue(appendedNow)) {
+                    sync();
+                }
+            }
+        }
+    }
+
+    /**
+     * Syncs all items appended so far unless the durability policy is {@link Durability#NONE}. Writers flush before
+     * they finish, so that their total durations include the last sync.
+     *
+     * @throws IOException if syncing failed
+     */
+    void flush() throws IOException {
+        if (durability == Durability.NONE) {
+            return;
+        }
+        synchronized (this) {
+            if (synced < appended.get()) {
+                sync();
+            }
+        }
+    }
+
+    private boolean isDue(long appendedNow) {
+        if (synced >= appendedNow) {
+            // a sync that started after the append already covered it
+            return false;
+        }
+        switch (durability) {
+            case EVERY_N_EVENTS:
+                return appendedNow - synced >= intervalEvents;
+            case EVERY_T_MS:
+                return System.nanoTime() - lastSyncNanos >= intervalNanos;
+            case PER_BATCH:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void sync() throws IOException {
+        long appendedBefore = appended.get();
+        long start = System.nanoTime();
+        target.sync();
+        long end = System.nanoTime();
+        syncLatencies.accept(end - start);
+        synced = appendedBefore;
+        lastSyncNanos = end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        target.close();
+    }
+
+    private static class DirectoryTarget implements Target {
+
+        private final Path dir;
+
+        private final Map<Path, FileChannel> channels = newHashMap();
+
+        private DirectoryTarget(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        public void sync() throws IOException {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Iterator<Path> it = files.filter(Files::isRegularFile).iterator(); it.hasNext(); ) {
+                    Path file = it.next();
+                    FileChannel channel = channels.get(file);
+                    if (channel == null) {
+                        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+                        channels.put(file, channel);
+                    }
+                    channel.force(true);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (FileChannel channel : channels.values()) {
+                channel.close();
+            }
+            channels.clear();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The minimum and maximum timestamps of the records of a {@link MappedLog}, per segment and per block of
+ * {@value #BLOCK_RECORDS} consecutive records within a segment. Range queries skip segments whose timestamps don't
+ * overlap the range. Within the other segments they binary-search the first block that may hold timestamps of the
+ * range in the running maximum of the block maxima and, once a segment is complete, the first block after which no
+ * timestamp of the range follows in the minimum of all remaining blocks. Blocks in between whose timestamps don't
+ * overlap the range are skipped as well. Timestamps need not be ascending, but the closer they are to ascending, the
+ * fewer blocks are read.
+ * <p>
+ * Timestamps are added by a single writer at a time (callers synchronize), while any number of readers may query the
+ * index concurrently. Readers see at least the records that were added before they started a query.
+ */
+class TimeIndex {
+
+    static final int BLOCK_RECORDS = 64;
+
+    private static final int INITIAL_BLOCKS = 64;
+
+    /**
+     * Replaced by a larger copy when full.
+     */
+    private static class Blocks {
+
+        final int[] offsets;
+
+        final long[] min;
+
+        final long[] max;
+
+        /**
+         * The maximum timestamp of the block and all previous blocks of the segment, i.e., ascending.
+         */
+        final long[] runningMax;
+
+        Blocks(int capacity) {
+            this.offsets = new int[capacity];
+            this.min = new long[capacity];
+            this.max = new long[capacity];
+            this.runningMax = new long[capacity];
+        }
+
+        Blocks(Blocks blocks, int capacity) {
+            this.offsets = Arrays.copyOf(blocks.offsets, capacity);
+            this.min = Arrays.copyOf(blocks.min, capacity);
+            this.max = Arrays.copyOf(blocks.max, capacity);
+            this.runningMax = Arrays.copyOf(blocks.runningMax, capacity);
+        }
+    }
+
+    private static class Segment {
+
+        /**
+         * Written before {@link #recordCnt} is increased, so that readers reading {@link #recordCnt} first always find
+         * the blocks of at least that many records.
+         */
+        volatile Blocks blocks = new Blocks(INITIAL_BLOCKS);
+
+        volatile long min = Long.MAX_VALUE;
+
+        volatile long max = Long.MIN_VALUE;
+
+        volatile int recordCnt;
+
+        /**
+         * The minimum timestamp of each block and all following blocks of the segment, i.e., ascending. {@code null}
+         * while the segment is appended to.
+         */
+        volatile long[] remainingMin;
+    }
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds the timestamp of a record. Records must be added in the order they were appended.
+     *
+     * @param segment   the index of the segment of the record
+     * @param offset    the offset of the record in its segment
+     * @param timestamp the timestamp of the record
+     */
+    void add(int segment, int offset, long timestamp) {
+
+        while (segments.size() <= segment) {
+            if (!segments.isEmpty()) {
+                complete(segments.get(segments.size() - 1));
+            }
+            segments.add(new Segment());
+        }
+
+        Segment s = segments.get(segment);
+        int recordCnt = s.recordCnt;
+        int block = recordCnt / BLOCK_RECORDS;
+        Blocks blocks = s.blocks;
+
+        if (recordCnt % BLOCK_RECORDS == 0) {
+            if (block == blocks.offsets.length) {
+                blocks = new Blocks(blocks, blocks.offsets.length * 2);
+                s.blocks = blocks;
+            }
+            blocks.offsets[block] = offset;
+            blocks.min[block] = timestamp;
+            blocks.max[block] = timestamp;
+            blocks.runningMax[block] = block == 0 ? timestamp : Math.max(blocks.runningMax[block - 1], timestamp);
+        } else {
+            blocks.min[block] = Math.min(blocks.min[block], timestamp);
+            blocks.max[block] = Math.max(blocks.max[block], timestamp);
+            blocks.runningMax[block] = Math.max(blocks.runningMax[block], timestamp);
+        }
+
+        if (timestamp < s.min) {
+            s.min = timestamp;
+        }
+        if (timestamp > s.max) {
+            s.max = timestamp;
+        }
+        s.recordCnt = recordCnt + 1;
+    }
+
+    private static void complete(Segment s) {
+        Blocks blocks = s.blocks;
+        int blockCnt = blockCount(s.recordCnt);
+        long[] remainingMin = new long[blockCnt];
+        for (int b = blockCnt - 1; b >= 0; b--) {
+            remainingMin[b] = b == blockCnt - 1 ? blocks.min[b] : Math.min(blocks.min[b], remainingMin[b + 1]);
+        }
+        s.remainingMin = remainingMin;
+    }
+
+    private static int blockCount(int recordCnt) {
+        return (recordCnt + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+    }
+
+    /**
+     * Returns the smallest timestamp added.
+     *
+     * @return the smallest timestamp, {@link Long#MAX_VALUE} if no timestamp has been added
+     */
+    long getMin() {
+        long min = Long.MAX_VALUE;
+        for (Segment s : segments) {
+            min = Math.min(min, s.min);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest timestamp added.
+     *
+     * @return the largest timestamp, {@link Long#MIN_VALUE} if no timestamp has been added
+     */
+    long getMax() {
+        long max = Long.MIN_VALUE;
+        for (Segment s : segments) {
+            max = Math.max(max, s.max);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the blocks that may hold records with timestamps between {@code from} and {@code to} (both inclusive) in
+     * the order they were appended.
+     *
+     * @param from the smallest timestamp of the range
+     * @param to   the largest timestamp of the range
+     * @return the blocks, positioned before the first one
+     */
+    BlockCursor blocks(long from, long to) {
+        return new BlockCursor(from, to);
+    }
+
+    /**
+     * Returns the approximate heap footprint of the index. Must be called by the writer or after writing completed.
+     *
+     * @return the size in bytes
+     */
+    long sizeInBytes() {
+        long size = 0;
+        for (Segment s : segments) {
+            size += s.blocks.offsets.length * (4L + 3 * 8);
+            long[] remainingMin = s.remainingMin;
+            size += remainingMin == null ? 0 : remainingMin.length * 8L;
+        }
+        return size;
+    }
+
+    /**
+     * Iterates over candidate blocks. Not thread-safe.
+     */
+    class BlockCursor {
+
+        private final long from;
+
+        private final long to;
+
+        private int segment = -1;
+
+        private Blocks blocks;
+
+        private int recordCnt;
+
+        private int block;
+
+        private int end;
+
+        private BlockCursor(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Moves to the next block that may hold records of the range.
+         *
+         * @return {@code false} if there are no more blocks
+         */
+        boolean next() {
+            while (true) {
+                while (blocks != null && ++block < end) {
+                    if (blocks.max[block] >= from && blocks.min[block] <= to) {
+                        return true;
+                    }
+                }
+                blocks = null;
+                if (++segment >= segments.size()) {
+                    return false;
+                }
+                Segment s = segments.get(segment);
+                recordCnt = s.recordCnt;
+                if (recordCnt == 0 || s.max < from || s.min > to) {
+                    continue;
+                }
+                blocks = s.blocks;
+                int blockCnt = blockCount(recordCnt);
+                block = firstGreaterOrEqual(blocks.runningMax, blockCnt, from) - 1;
+                long[] remainingMin = s.remainingMin;
+                end = remainingMin == null || to == Long.MAX_VALUE ?
+                        blockCnt : firstGreaterOrEqual(remainingMin, blockCnt, to + 1);
+            }
+        }
+
+        int getSegment() {
+            return segment;
+        }
+
+        /**
+         * Returns the offset of the first record of the current block in its segment.
+         */
+        int getOffset() {
+            return blocks.offsets[block];
+        }
+
+        /**
+         * Returns the number of records in the current block.
+         */
+        int getRecordCnt() {
+            return Math.min(BLOCK_RECORDS, recordCnt - block * BLOCK_RECORDS);
+        }
+    }
+
+    /**
+     * Returns the index of the first of the first {@code length} ascending {@code values} that is greater than or equal
+     * to {@code key}, {@code length} if there is none.
+     */
+    private static int firstGreaterOrEqual(long[] values, int length, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,260 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import com.google.common.base.Stopwatch;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measurements taken by a single reader or writer thread during a run. An instance is confined to the worker thread
+ * until the worker hands it over by completing its future. It must be created and stopped by the worker thread
+ * itself, as it accounts resources of the current thread. The latency histograms are allocated up front so that
+ * recording a value does not allocate.
+ */
+public class WorkerStats {
+
+    /**
+     * Latencies above this value (in nanoseconds) are recorded as this value.
+     */
+    static final long HIGHEST_TRACKABLE_LATENCY_NS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    static {
+        if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && !THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+            THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+        }
+        if (THREAD_MX_BEAN.isThreadContentionMonitoringSupported()
+                && !THREAD_MX_BEAN.isThreadContentionMonitoringEnabled()) {
+            THREAD_MX_BEAN.setThreadContentionMonitoringEnabled(true);
+        }
+    }
+
+    private final Stopwatch stopwatch;
+
+    private final Histogram latencies = createHistogram();
+
+    private final Histogram batchLatencies = createHistogram();
+
+    private final Histogram endToEndLatencies = createHistogram();
+
+    private long allocatedBytes;
+
+    private long cpuNanos;
+
+    private long blockedCount;
+
+    private long blockedMillis;
+
+    private long waitedCount;
+
+    private long waitedMillis;
+
+    private long operations = -1;
+
+    private long itemsFound;
+
+    private WorkerStats() {
+        this.cpuNanos = -currentThreadCpuTime();
+        ThreadInfo info = THREAD_MX_BEAN.getThreadInfo(Thread.currentThread().getId());
+        this.blockedCount = -info.getBlockedCount();
+        this.blockedMillis = -Math.max(0, info.getBlockedTime());
+        this.waitedCount = -info.getWaitedCount();
+        this.waitedMillis = -Math.max(0, info.getWaitedTime());
+        this.allocatedBytes = -currentThreadAllocatedBytes();
+        this.stopwatch = Stopwatch.createStarted();
+    }
+
+    public static WorkerStats createStarted() {
+        return new WorkerStats();
+    }
+
+    static Histogram createHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_LATENCY_NS, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Records the latency of a single operation.
+     *
+     * @param nanos the duration of the operation in nanoseconds
+     */
+    public void recordLatency(long nanos) {
+        latencies.recordValue(clamp(nanos));
+    }
+
+    /**
+     * Records the same latency for {@code count} operations, e.g., for all operations of a batch.
+     *
+     * @param nanos the duration of the operations in nanoseconds
+     * @param count the number of operations
+     */
+    public void recordLatency(long nanos, long count) {
+        latencies.recordValueWithCount(clamp(nanos), count);
+    }
+
+    /**
+     * Records the latency of writing a batch of items.
+     *
+     * @param nanos the duration of the batch in nanoseconds
+     */
+    public void recordBatchLatency(long nanos) {
+        batchLatencies.recordValue(clamp(nanos));
+    }
+
+    /**
+     * Records the latency from handing an item to the store until a reader sees it.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordEndToEndLatency(long nanos) {
+        endToEndLatencies.recordValue(clamp(nanos));
+    }
+
+    static long clamp(long nanos) {
+        return Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_LATENCY_NS);
+    }
+
+    public WorkerStats stop() {
+        stopwatch.stop();
+        allocatedBytes += currentThreadAllocatedBytes();
+        ThreadInfo info = THREAD_MX_BEAN.getThreadInfo(Thread.currentThread().getId());
+        blockedCount += info.getBlockedCount();
+        blockedMillis += Math.max(0, info.getBlockedTime());
+        waitedCount += info.getWaitedCount();
+        waitedMillis += Math.max(0, info.getWaitedTime());
+        cpuNanos += currentThreadCpuTime();
+        return this;
+    }
+
+    /**
+     * Returns the CPU time the worker thread consumed between creating and stopping this instance.
+     *
+     * @return the CPU time in nanoseconds, 0 if the JVM does not support CPU time measurement
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * Returns how often the worker thread blocked to enter a monitor.
+     *
+     * @return the number of times the thread blocked
+     */
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+
+    /**
+     * Returns how long the worker thread was blocked entering monitors.
+     *
+     * @return the blocked time in milliseconds, 0 if the JVM does not support contention monitoring
+     */
+    public long getBlockedMillis() {
+        return blockedMillis;
+    }
+
+    /**
+     * Returns how often the worker thread waited, e.g., in {@link Object#wait()} or when being parked.
+     *
+     * @return the number of times the thread waited
+     */
+    public long getWaitedCount() {
+        return waitedCount;
+    }
+
+    /**
+     * Returns how long the worker thread waited.
+     *
+     * @return the waited time in milliseconds, 0 if the JVM does not support contention monitoring
+     */
+    public long getWaitedMillis() {
+        return waitedMillis;
+    }
+
+    private static long currentThreadCpuTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? Math.max(0, THREAD_MX_BEAN.getCurrentThreadCpuTime()) : 0;
+    }
+
+    /**
+     * Returns the number of bytes the worker thread allocated on the heap between creating and stopping this instance.
+     *
+     * @return the allocated bytes, 0 if the JVM does not support allocation accounting
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sets the number of operations the worker performed if it differs from the number configured for the run, e.g.,
+     * because a reader can't read more items than are written.
+     *
+     * @param operations the number of operations
+     */
+    public void setOperations(long operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * Returns the number of operations the worker performed.
+     *
+     * @param configured the number of operations configured for the run
+     * @return the number set with {@link #setOperations(long)}, {@code configured} if none was set
+     */
+    public long getOperations(long configured) {
+        return operations < 0 ? configured : operations;
+    }
+
+    /**
+     * Adds to the number of items a query reader found.
+     *
+     * @param items the number of items found by one or more queries
+     */
+    public void addItemsFound(long items) {
+        itemsFound += items;
+    }
+
+    /**
+     * Returns the number of items a query reader found.
+     *
+     * @return the number of items, 0 for other workers
+     */
+    public long getItemsFound() {
+        return itemsFound;
+    }
+
+    public Stopwatch getStopwatch() {
+        return stopwatch;
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public Histogram getBatchLatencies() {
+        return batchLatencies;
+    }
+
+    public Histogram getEndToEndLatencies() {
+        return endToEndLatencies;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerStats{" + "stopwatch=" + stopwatch + ", latencies=" + latencies.getTotalCount() + '}';
+    }
+}
@@ -0,0 +1,217 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class MappedLogTest {
+
+    /**
+     * A header of 16 bytes and 48 bytes for records.
+     */
+    private static final int SEGMENT_SIZE = 64;
+
+    /**
+     * Items are byte arrays whose first byte is their ID and timestamp, items with even IDs are of one node and items
+     * with odd IDs of another.
+     */
+    private static final BufferSerializer<byte[]> SERIALIZER = new BufferSerializer<byte[]>() {
+
+        @Override
+        public void serialize(byte[] item, ByteBuffer target) {
+            target.put(item);
+        }
+
+        @Override
+        public byte[] deserialize(ByteBuffer source) {
+            byte[] item = new byte[source.remaining()];
+            source.get(item);
+            return item;
+        }
+    };
+
+    /**
+     * Two records of 4 + 20 bytes that exactly fill the first segment, one of 4 + 42 bytes leaving 2 bytes in the
+     * second segment, one of 4 + 40 bytes leaving room for the end of segment marker only in the third segment and one
+     * of 4 + 10 bytes in the fourth segment.
+     */
+    private static final byte[][] ITEMS = {item(1, 20), item(2, 20), item(3, 42), item(4, 40), item(5, 10)};
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("mapped-log-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testRollsOverSegments() throws IOException {
+        MappedLog<byte[]> log = open();
+        for (byte[] item : ITEMS) {
+            log.append(item, 0);
+        }
+        assertEquals(ITEMS.length, log.size());
+        assertEquals(4, countFiles());
+        assertItems(log);
+        log.close();
+    }
+
+    @Test
+    public void testReopens() throws IOException {
+        MappedLog<byte[]> log = open();
+        for (byte[] item : ITEMS) {
+            log.append(item, 0);
+        }
+        log.close();
+
+        log = open();
+        assertEquals(ITEMS.length, log.size());
+        assertItems(log);
+
+        // doesn't fit into the 34 bytes left in the fourth segment
+        log.append(item(6, 40), 0);
+        assertEquals(5, countFiles());
+        assertEquals(ITEMS.length + 1, countRecords(log));
+        log.close();
+    }
+
+    @Test
+    public void testRebuildsIndexesBeforeAppendsAfterReopening() throws IOException {
+        MappedLog<byte[]> log = open();
+        for (byte[] item : ITEMS) {
+            log.append(item, 0);
+        }
+        log.close();
+
+        log = open();
+        byte[] item = item(6, 40);
+        log.append(item, 0);
+        assertArrayEquals(ITEMS[0], log.get(1));
+        assertArrayEquals(item, log.get(6));
+        assertNodeItems(log, "urn:even", ITEMS[1], ITEMS[3], item);
+        assertEquals(1, log.getMinTimestamp());
+        assertEquals(6, log.getMaxTimestamp());
+        log.close();
+    }
+
+    @Test
+    public void testFindsItemsById() throws IOException {
+        MappedLog<byte[]> log = open();
+        for (byte[] item : ITEMS) {
+            log.append(item, 0);
+        }
+        for (byte[] item : ITEMS) {
+            assertArrayEquals(item, log.get(item[0]));
+        }
+        assertNull(log.get(6));
+        log.close();
+    }
+
+    @Test
+    public void testFindsItemsByNodeUrn() throws IOException {
+        MappedLog<byte[]> log = open();
+        for (byte[] item : ITEMS) {
+            log.append(item, 0);
+        }
+        assertNodeItems(log, "urn:odd", ITEMS[0], ITEMS[2], ITEMS[4]);
+        assertNodeItems(log, "urn:even", ITEMS[1], ITEMS[3]);
+        assertNodeItems(log, "urn:none");
+        log.close();
+    }
+
+    @Test
+    public void testFindsItemsByTimestamp() throws IOException {
+        MappedLog<byte[]> log = open();
+        for (byte[] item : ITEMS) {
+            log.append(item, 0);
+        }
+        Iterator<byte[]> between = log.getBetween(2, 4);
+        for (int i = 1; i <= 3; i++) {
+            assertArrayEquals(ITEMS[i], between.next());
+        }
+        assertFalse(between.hasNext());
+        assertFalse(log.getBetween(6, Long.MAX_VALUE).hasNext());
+        log.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsItemsLargerThanASegment() throws IOException {
+        MappedLog<byte[]> log = open();
+        try {
+            log.append(item(1, SEGMENT_SIZE - 16 - 4 + 1), 0);
+        } finally {
+            log.close();
+        }
+    }
+
+    private MappedLog<byte[]> open() throws IOException {
+        return new MappedLog<>(dir, SEGMENT_SIZE, SERIALIZER, null, false, item -> item[0], MappedLogTest::nodeUrn,
+                item -> item[0]);
+    }
+
+    private static void assertItems(MappedLog<byte[]> log) {
+        MappedLog<byte[]>.Cursor cursor = log.cursor();
+        for (byte[] item : ITEMS) {
+            assertArrayEquals(item, cursor.next());
+        }
+        assertFalse(cursor.hasNext());
+    }
+
+    private static void assertNodeItems(MappedLog<byte[]> log, String nodeUrn, byte[]... items) {
+        Iterator<byte[]> found = log.getByNodeUrn(nodeUrn);
+        for (byte[] item : items) {
+            assertArrayEquals(item, found.next());
+        }
+        assertFalse(found.hasNext());
+    }
+
+    private static long countRecords(MappedLog<byte[]> log) {
+        MappedLog<byte[]>.Cursor cursor = log.cursor();
+        long count = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            count++;
+        }
+        return count;
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static String nodeUrn(byte[] item) {
+        return item[0] % 2 == 0 ? "urn:even" : "urn:odd";
+    }
+
+    private static byte[] item(int id, int length) {
+        byte[] item = new byte[length];
+        Arrays.fill(item, (byte) (100 + id));
+        item[0] = (byte) id;
+        return item;
+    }
+}
@@ -0,0 +1,85 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapLongLongMapTest {
+
+    /**
+     * More keys than fit into a single chunk of 2^20 slots at a fill factor of 1/2.
+     */
+    private static final int MANY_KEYS = 1_500_000;
+
+    @Test
+    public void testGrowsAcrossChunkBoundaries() {
+        OffHeapLongLongMap map = new OffHeapLongLongMap(16);
+        for (long i = 1; i <= MANY_KEYS; i++) {
+            map.put(key(i), i);
+        }
+        assertEquals(MANY_KEYS, map.size());
+        assertTrue(map.sizeInBytes() > (1L << 20) * 16);
+        for (long i = 1; i <= MANY_KEYS; i++) {
+            assertEquals(i, map.get(key(i)));
+        }
+        assertEquals(OffHeapLongLongMap.ABSENT, map.get(key(MANY_KEYS + 1)));
+    }
+
+    @Test
+    public void testReplacesValues() {
+        OffHeapLongLongMap map = new OffHeapLongLongMap(16);
+        map.put(42, 1);
+        map.put(42, 2);
+        assertEquals(1, map.size());
+        assertEquals(2, map.get(42));
+    }
+
+    @Test
+    public void testKeyZero() {
+        OffHeapLongLongMap map = new OffHeapLongLongMap(16);
+        assertEquals(OffHeapLongLongMap.ABSENT, map.get(0));
+
+        map.put(0, 7);
+        assertEquals(1, map.size());
+        assertEquals(7, map.get(0));
+        assertEquals(0, map.randomKey(new SplittableRandom(1)));
+
+        map.put(0, 8);
+        map.put(-1, 9);
+        assertEquals(2, map.size());
+        assertEquals(8, map.get(0));
+        assertEquals(9, map.get(-1));
+    }
+
+    @Test
+    public void testRandomKeyReturnsContainedKeys() {
+        OffHeapLongLongMap map = new OffHeapLongLongMap(16);
+        for (long i = 1; i <= 100; i++) {
+            map.put(key(i), i);
+        }
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(map.get(map.randomKey(random)) != OffHeapLongLongMap.ABSENT);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRandomKeyOfEmptyMap() {
+        new OffHeapLongLongMap(16).randomKey(new SplittableRandom(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNegativeValues() {
+        new OffHeapLongLongMap(16).put(1, -1);
+    }
+
+    /**
+     * Spreads keys over the whole {@code long} range, including negative keys.
+     */
+    private static long key(long i) {
+        return i * 0x9E3779B97F4A7C15L;
+    }
+}
@@ -0,0 +1,73 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class PostingIndexTest {
+
+    @Test
+    public void testRoundTripsPositions() {
+        long[] positions = {
+                0,
+                1,
+                127,
+                128,
+                (1L << 14) + 128,
+                // deltas of 2^32 and more, e.g., when moving to the next segment
+                (1L << 32) + (1L << 14) + 128,
+                (3L << 32) + 16,
+                (3L << 32) + 16 + (1L << 35),
+                Long.MAX_VALUE
+        };
+        PostingIndex index = new PostingIndex();
+        for (long position : positions) {
+            index.add("urn:a", position);
+        }
+        assertArrayEquals(positions, toArray(index.get("urn:a"), positions.length));
+    }
+
+    @Test
+    public void testSeparatesKeys() {
+        PostingIndex index = new PostingIndex();
+        for (long i = 0; i < 1000; i++) {
+            index.add(i % 2 == 0 ? "urn:even" : "urn:odd", i << 32 | i);
+        }
+        PrimitiveIterator.OfLong odd = index.get("urn:odd");
+        for (long i = 1; i < 1000; i += 2) {
+            assertEquals(i << 32 | i, odd.nextLong());
+        }
+        assertFalse(odd.hasNext());
+        assertFalse(index.get("urn:none").hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsDescendingPositions() {
+        PostingIndex index = new PostingIndex();
+        index.add("urn:a", 2);
+        index.add("urn:a", 1);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testThrowsAtTheEnd() {
+        PostingIndex index = new PostingIndex();
+        index.add("urn:a", 1);
+        PrimitiveIterator.OfLong positions = index.get("urn:a");
+        positions.nextLong();
+        positions.nextLong();
+    }
+
+    private static long[] toArray(PrimitiveIterator.OfLong positions, int expectedLength) {
+        long[] array = new long[expectedLength];
+        for (int i = 0; i < expectedLength; i++) {
+            array[i] = positions.nextLong();
+        }
+        assertFalse(positions.hasNext());
+        return array;
+    }
+}
@@ -0,0 +1,106 @@
+package de.uniluebeck.itm.tr.eventstore.eval;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimeIndexTest {
+
+    /**
+     * Leaves the last block of every segment partially filled.
+     */
+    private static final int SEGMENT_RECORDS = 3 * TimeIndex.BLOCK_RECORDS + 10;
+
+    private static final int SEGMENTS = 4;
+
+    @Test
+    public void testFindsRangesOfNonMonotonicTimestamps() {
+        SplittableRandom random = new SplittableRandom(1);
+        long[][] timestamps = new long[SEGMENTS][SEGMENT_RECORDS];
+        TimeIndex index = new TimeIndex();
+        for (int s = 0; s < SEGMENTS; s++) {
+            for (int r = 0; r < SEGMENT_RECORDS; r++) {
+                // roughly ascending with jitter, and a few far outliers
+                long timestamp = 1000L * (s * SEGMENT_RECORDS + r) + random.nextInt(5000)
+                        - (random.nextInt(50) == 0 ? 500_000 : 0);
+                timestamps[s][r] = timestamp;
+                // record r of every segment starts at offset r
+                index.add(s, r, timestamp);
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            long from = random.nextLong(-1_000_000, 1000L * SEGMENTS * SEGMENT_RECORDS + 1_000_000);
+            long to = random.nextInt(10) == 0 ? Long.MAX_VALUE : from + random.nextInt(50_000);
+            assertCovers(index, timestamps, from, to);
+        }
+        assertCovers(index, timestamps, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testSkipsBlocksOutsideOfTheRange() {
+        TimeIndex index = new TimeIndex();
+        for (int r = 0; r < SEGMENT_RECORDS; r++) {
+            index.add(0, r, r);
+        }
+        TimeIndex.BlockCursor blocks = index.blocks(TimeIndex.BLOCK_RECORDS, TimeIndex.BLOCK_RECORDS);
+        assertTrue(blocks.next());
+        assertEquals(TimeIndex.BLOCK_RECORDS, blocks.getOffset());
+        assertFalse(blocks.next());
+
+        // the partially filled last block
+        blocks = index.blocks(SEGMENT_RECORDS - 1, Long.MAX_VALUE);
+        assertTrue(blocks.next());
+        assertEquals(3 * TimeIndex.BLOCK_RECORDS, blocks.getOffset());
+        assertEquals(10, blocks.getRecordCnt());
+        assertFalse(blocks.next());
+
+        assertFalse(index.blocks(SEGMENT_RECORDS, Long.MAX_VALUE).next());
+        assertFalse(index.blocks(Long.MIN_VALUE, -1).next());
+    }
+
+    @Test
+    public void testMinAndMax() {
+        TimeIndex index = new TimeIndex();
+        assertEquals(Long.MAX_VALUE, index.getMin());
+        assertEquals(Long.MIN_VALUE, index.getMax());
+        assertFalse(index.blocks(Long.MIN_VALUE, Long.MAX_VALUE).next());
+
+        index.add(0, 0, 5);
+        index.add(0, 1, 3);
+        index.add(1, 0, 9);
+        index.add(1, 1, 4);
+        assertEquals(3, index.getMin());
+        assertEquals(9, index.getMax());
+    }
+
+    /**
+     * Asserts that the blocks returned for the range hold all records of the range and that the timestamps of every
+     * block overlap it.
+     */
+    private static void assertCovers(TimeIndex index, long[][] timestamps, long from, long to) {
+        boolean[][] covered = new boolean[SEGMENTS][SEGMENT_RECORDS];
+        TimeIndex.BlockCursor blocks = index.blocks(from, to);
+        while (blocks.next()) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int r = blocks.getOffset(); r < blocks.getOffset() + blocks.getRecordCnt(); r++) {
+                covered[blocks.getSegment()][r] = true;
+                min = Math.min(min, timestamps[blocks.getSegment()][r]);
+                max = Math.max(max, timestamps[blocks.getSegment()][r]);
+            }
+            assertTrue("Block outside of [" + from + ", " + to + "]", max >= from && min <= to);
+        }
+        for (int s = 0; s < SEGMENTS; s++) {
+            for (int r = 0; r < SEGMENT_RECORDS; r++) {
+                if (timestamps[s][r] >= from && timestamps[s][r] <= to) {
+                    assertTrue("Record " + r + " of segment " + s + " missing", covered[s][r]);
+                }
+            }
+        }
+    }
+}